@@ -0,0 +1,27 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class BarcodeConfig {
+    
+    @Value("${barcode.batch.render-threads:0}")
+    private int renderThreads;
+    
+    // Toplu barkod üretimi: görevler yalnızca CPU kullanır, thread sayısı çekirdek sayısı kadar
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor barcodeRenderExecutor() {
+        int threads = renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                ExcelImportConfig.daemonThreadFactory("barcode-render-"));
+    }
+}
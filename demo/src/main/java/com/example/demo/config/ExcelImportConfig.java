@@ -0,0 +1,67 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExcelImportConfig {
+    
+    @Value("${excel.import.worker-threads:2}")
+    private int workerThreads;
+    
+    @Value("${excel.import.queue-capacity:10}")
+    private int queueCapacity;
+    
+    @Value("${excel.import.mapping-threads:0}")
+    private int mappingThreads;
+    
+    // Import işleri için sınırlı havuz: kuyruk dolarsa yeni iş reddedilir (Tomcat thread'leri bloklanmaz)
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor excelImportExecutor() {
+        return new ThreadPoolExecutor(
+                workerThreads, workerThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                daemonThreadFactory("excel-import-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    // Satır eşleme/doğrulama aşaması: tüm import işleri tarafından paylaşılır, görevler hiçbir şey beklemez.
+    // İşlerin kendi kuyrukları sınırlı olduğundan bu havuzun kuyruğu dolaylı olarak sınırlıdır.
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor excelMappingExecutor() {
+        int threads = mappingThreads > 0 ? mappingThreads : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                daemonThreadFactory("excel-map-"));
+    }
+    
+    // Kaydetme aşaması: her import için bir thread, okuma ile eş zamanlı çalışır
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor excelPersistExecutor() {
+        return new ThreadPoolExecutor(
+                workerThreads, workerThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                daemonThreadFactory("excel-persist-"));
+    }
+    
+    static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
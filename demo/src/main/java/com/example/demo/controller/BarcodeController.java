@@ -1,31 +1,52 @@
 package com.example.demo.controller;
 
+import com.example.demo.model.BarcodeBatchRequest;
 import com.example.demo.model.BarcodeRequest;
 import com.example.demo.model.Product;
 import com.example.demo.service.BarcodeService;
 import com.example.demo.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/barcode")
 @CrossOrigin(origins = "http://localhost:3000")
 public class BarcodeController {
     
+    // Barkod görseli parametrelerinin saf fonksiyonudur: tarayıcı bir yıl boyunca tekrar sormadan kullanabilir
+    private static final CacheControl IMAGE_CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    
+    private static final MediaType IMAGE_SVG = MediaType.valueOf("image/svg+xml");
+    
     @Autowired
     private BarcodeService barcodeService;
     
     @Autowired
     private ProductService productService;
     
+    @Value("${barcode.batch.max-codes:5000}")
+    private int batchMaxCodes;
+    
+    @Value("${barcode.image.max-width:4000}")
+    private int maxImageWidth;
+    
+    @Value("${barcode.image.max-height:2000}")
+    private int maxImageHeight;
+    
     @PostMapping("/generate")
     public ResponseEntity<Product> generateBarcode(@RequestBody BarcodeRequest request) {
         try {
@@ -45,25 +66,83 @@ public class BarcodeController {
     }
     
     @GetMapping("/image/{barcode}")
-    public ResponseEntity<byte[]> getBarcodeImage(@PathVariable String barcode, 
+    public ResponseEntity<Resource> getBarcodeImage(@PathVariable String barcode, 
                                                 @RequestParam(defaultValue = "QR_CODE") String type,
                                                 @RequestParam(defaultValue = "300") int width,
-                                                @RequestParam(defaultValue = "300") int height) {
+                                                @RequestParam(defaultValue = "300") int height,
+                                                @RequestParam(defaultValue = "png") String format,
+                                                WebRequest request) {
+        // png: raster, svg: yazdırma için vektör (tek path)
+        boolean svg = "svg".equalsIgnoreCase(format);
+        if (!svg && !"png".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!isValidSize(width, height)) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            byte[] imageBytes;
+            // If-None-Match eşleşirse görsel hiç üretilmeden 304 döner (ETag başlığını checkNotModified yazar)
+            String eTag = barcodeService.code128ETag(barcode, svg ? "SVG" : "PNG", width, height);
+            if (request.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .cacheControl(IMAGE_CACHE_CONTROL)
+                        .build();
+            }
 
-            imageBytes = barcodeService.generateCode128Barcode(barcode, width, height);
+            // Bellekte ya da diskte hazırsa kodlayıcıya hiç dokunulmaz
+            Resource image = barcodeService.code128Resource(barcode, svg, width, height);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.IMAGE_PNG);
-            headers.setContentLength(imageBytes.length);
-            
-            return new ResponseEntity<>(imageBytes, headers, HttpStatus.OK);
+            return ResponseEntity.ok()
+                    .contentType(svg ? IMAGE_SVG : MediaType.IMAGE_PNG)
+                    .contentLength(image.contentLength())
+                    .eTag(eTag)
+                    .cacheControl(IMAGE_CACHE_CONTROL)
+                    .body(image);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
     
+    // Toplu baskı: tüm kodlar tek istekte, JSON içinde data URI olarak döner
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> renderBatch(@RequestBody BarcodeBatchRequest request) {
+        boolean svg = "svg".equalsIgnoreCase(request.getFormat());
+        if (!svg && !"png".equalsIgnoreCase(request.getFormat())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Geçersiz format: " + request.getFormat()));
+        }
+        List<String> codes = request.getCodes();
+        if (codes == null || codes.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Barkod listesi boş"));
+        }
+        if (codes.size() > batchMaxCodes) {
+            return ResponseEntity.badRequest().body(Map.of("error", "En fazla " + batchMaxCodes + " barkod istenebilir"));
+        }
+        if (!isValidSize(request.getWidth(), request.getHeight())) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "Geçersiz boyut (en fazla " + maxImageWidth + "x" + maxImageHeight + ")"));
+        }
+        return ResponseEntity.ok(barcodeService.renderBatch(codes, svg, request.getWidth(), request.getHeight()));
+    }
+    
+    // Büyük görseller hem render sırasında hem önbellekte bellek tutar
+    private boolean isValidSize(int width, int height) {
+        return width >= 0 && height >= 0 && width <= maxImageWidth && height <= maxImageHeight;
+    }
+    
+    // Görsel önbelleğinin isabet / ıska / atılma sayaçları
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(barcodeService.getCacheStats());
+    }
+    
+    // Bellek ve disk önbelleğini boşaltır (örn. render ayarları değiştiğinde); yalnızca yönetici
+    @DeleteMapping("/cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> clearCache() {
+        barcodeService.clearCache();
+        return ResponseEntity.ok(barcodeService.getCacheStats());
+    }
+    
     @GetMapping("/products")
     public ResponseEntity<List<Product>> getAllProducts() {
         List<Product> products = productService.getAllProducts();
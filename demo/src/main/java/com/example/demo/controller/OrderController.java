@@ -3,13 +3,28 @@ package com.example.demo.controller;
 import com.example.demo.model.*;
 import com.example.demo.service.OrderService;
 import com.example.demo.service.BarcodeService;
+import com.example.demo.service.LabelSheetService;
+import com.example.demo.service.OrderGroupingService;
+import com.example.demo.service.OrderStatsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -17,12 +32,29 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:3000")
 public class OrderController {
     
+    private static final MediaType ZPL = new MediaType("text", "plain", StandardCharsets.UTF_8);
+    
     @Autowired
     private OrderService orderService;
     
     @Autowired
     private BarcodeService barcodeService;
     
+    @Autowired
+    private LabelSheetService labelSheetService;
+    
+    @Autowired
+    private OrderGroupingService orderGroupingService;
+    
+    @Autowired
+    private OrderStatsService orderStatsService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${labels.max-orders:5000}")
+    private int maxLabelOrders;
+    
     @PostMapping
     public ResponseEntity<Order> createOrder(@RequestBody OrderRequest request) {
         try {
@@ -43,6 +75,45 @@ public class OrderController {
         return ResponseEntity.ok(orderDTOs);
     }
     
+    // Sunucuda filtrelenen sayfalı liste, örn. ?status=SHIPPED&createdFrom=2024-05-01&createdTo=2024-05-01&size=100;
+    // sonraki sayfa için yanıttaki nextCursor değeri cursor parametresiyle gönderilir
+    @GetMapping("/page")
+    public ResponseEntity<Map<String, Object>> getOrdersPage(@ModelAttribute OrderPageRequest request) {
+        try {
+            return ResponseEntity.ok(orderService.getOrdersPage(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    // Paketleme ekranı grupları (alıcı + stok kodu), örn. ?status=SHIPPED&from=2024-05-01&to=2024-05-01
+    @GetMapping("/groups")
+    public ResponseEntity<List<OrderGroupDTO>> getOrderGroups(
+            @RequestParam(defaultValue = "PENDING") OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(orderGroupingService.getGroups(status, from, to));
+    }
+    
+    // Rapor ekranı: durum başına adet, tutar ve ürün adedi, örn. ?from=2024-05-01&to=2024-05-31&brand=...
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getOrderStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String brand) {
+        return ResponseEntity.ok(orderStatsService.getStats(from, to, brand));
+    }
+    
+    // Kalemleriyle birlikte sipariş ayrıntıları, istenen sırayla: [1, 2, 3]
+    @PostMapping("/details")
+    public ResponseEntity<?> getOrderDetails(@RequestBody List<Long> ids) {
+        try {
+            return ResponseEntity.ok(orderService.getOrderDetails(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
         Optional<Order> order = orderService.getOrderById(id);
@@ -82,6 +153,17 @@ public class OrderController {
         return ResponseEntity.notFound().build();
     }
     
+    // Toplu durum güncelleme: {"ids": [1, 2, 3], "status": "SHIPPED"}
+    // ya da filtreyle {"currentStatus": "PENDING", "from": "2024-05-01", "to": "2024-05-01", "status": "SHIPPED"}
+    @PutMapping("/status")
+    public ResponseEntity<Map<String, Object>> updateOrderStatuses(@RequestBody OrderStatusBulkRequest request) {
+        try {
+            return ResponseEntity.ok(orderService.updateOrderStatuses(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
         boolean deleted = orderService.deleteOrder(id);
@@ -91,8 +173,20 @@ public class OrderController {
         return ResponseEntity.notFound().build();
     }
     
+    // Etiket siparişin güncel verisine bağlı: tarayıcı saklayabilir ama her seferinde ETag ile doğrulatır
     @GetMapping("/{id}/label")
-    public ResponseEntity<byte[]> generateOrderLabel(@PathVariable Long id) {
+    public ResponseEntity<byte[]> generateOrderLabel(@PathVariable Long id,
+                                                     @RequestParam(defaultValue = "png") String format,
+                                                     @RequestParam(defaultValue = "203") int dpi,
+                                                     WebRequest request,
+                                                     Principal principal) {
+        if ("zpl".equalsIgnoreCase(format)) {
+            return generateZplLabel(id, dpi, principal);
+        }
+        boolean svg = "svg".equalsIgnoreCase(format);
+        if (!svg && !"png".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
             Optional<Order> orderOpt = orderService.getOrderById(id);
             if (orderOpt.isPresent()) {
@@ -100,10 +194,20 @@ public class OrderController {
                 
                 // Sipariş etiketi için barkod oluştur
                 String barcodeData = order.getOrderNumber() + "|" + order.getCargoCampaignCode();
-                byte[] barcodeImage = barcodeService.generateCode128Barcode(barcodeData, 300, 100);
+                String eTag = barcodeService.code128ETag(barcodeData, svg ? "SVG" : "PNG", 300, 100);
+                if (request.checkNotModified(eTag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .cacheControl(CacheControl.noCache())
+                        .build();
+                }
+                byte[] barcodeImage = svg
+                    ? barcodeService.generateCode128Svg(barcodeData, 300, 100)
+                    : barcodeService.generateCode128Barcode(barcodeData, 300, 100);
                 
                 return ResponseEntity.ok()
-                    .header("Content-Type", "image/png")
+                    .header("Content-Type", svg ? "image/svg+xml" : "image/png")
+                    .eTag(eTag)
+                    .cacheControl(CacheControl.noCache())
                     .body(barcodeImage);
             }
             return ResponseEntity.notFound().build();
@@ -112,6 +216,88 @@ public class OrderController {
         }
     }
     
+    // ZPL etiketi alıcı adı ve adres içerir; uç herkese açık olsa da bu format oturum ister
+    private ResponseEntity<byte[]> generateZplLabel(Long id, int dpi, Principal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            labelSheetService.zplDpiOf(dpi);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<Order> orderOpt = orderService.getOrderById(id);
+        if (orderOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        byte[] zpl = labelSheetService.renderZplLabel(orderOpt.get(), dpi).getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.ok()
+                .contentType(ZPL)
+                .cacheControl(CacheControl.noStore())
+                .body(zpl);
+    }
+    
+    // Çok sayfalı etiketler: ?ids=1,2,3 ya da ?status=PENDING&from=2024-01-01&to=2024-01-31;
+    // format=pdf (layout=single|a4) veya format=zpl (dpi=203)
+    @GetMapping("/labels")
+    public ResponseEntity<StreamingResponseBody> getLabelSheet(@ModelAttribute LabelSheetRequest request) {
+        return labelSheet(request);
+    }
+    
+    // Uzun id listeleri URL'ye sığmadığından aynı istek gövdede de gönderilebilir
+    @PostMapping("/labels")
+    public ResponseEntity<StreamingResponseBody> postLabelSheet(@RequestBody LabelSheetRequest request) {
+        return labelSheet(request);
+    }
+    
+    private ResponseEntity<StreamingResponseBody> labelSheet(LabelSheetRequest request) {
+        boolean zpl = "zpl".equalsIgnoreCase(request.getFormat());
+        if (!zpl && !"pdf".equalsIgnoreCase(request.getFormat())) {
+            return labelSheetError(HttpStatus.BAD_REQUEST, "Geçersiz format: " + request.getFormat());
+        }
+        LabelSheetService.LabelLayout layout;
+        try {
+            layout = zpl ? null : labelSheetService.layoutOf(request);
+            if (zpl) {
+                labelSheetService.zplDpiOf(request.getDpi());
+            }
+        } catch (IllegalArgumentException e) {
+            return labelSheetError(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        List<Long> orderIds = labelSheetService.resolveOrderIds(request);
+        if (orderIds.isEmpty()) {
+            return labelSheetError(HttpStatus.NOT_FOUND, "Etiket basılacak sipariş bulunamadı");
+        }
+        if (orderIds.size() > maxLabelOrders) {
+            return labelSheetError(HttpStatus.BAD_REQUEST, "En fazla " + maxLabelOrders + " etiket basılabilir");
+        }
+        
+        // ZPL düz metindir: dosyaya kaydedilip ya da yazıcının 9100 portuna olduğu gibi gönderilebilir
+        if (zpl) {
+            StreamingResponseBody body = out -> labelSheetService.writeZplLabels(orderIds, request.getDpi(), out);
+            return ResponseEntity.ok()
+                    .contentType(ZPL)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"etiketler.zpl\"")
+                    .cacheControl(CacheControl.noStore())
+                    .body(body);
+        }
+        
+        // Sayfalar üretildikçe yanıta yazılır; büyük baskılarda yazdırma PDF bitmeden başlayabilir
+        StreamingResponseBody body = out -> labelSheetService.writeLabels(orderIds, layout, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"etiketler.pdf\"")
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+    
+    // Akış döndüren uçta hata da aynı gövde tipiyle, JSON olarak yazılır
+    private ResponseEntity<StreamingResponseBody> labelSheetError(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, Map.of("error", message)));
+    }
+    
     // Status update request model
     public static class OrderStatusUpdateRequest {
         private OrderStatus status;
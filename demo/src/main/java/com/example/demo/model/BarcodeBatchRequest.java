@@ -0,0 +1,45 @@
+package com.example.demo.model;
+
+import java.util.List;
+
+public class BarcodeBatchRequest {
+    private List<String> codes;
+    private int width = 300;
+    private int height = 100;
+    private String format = "png"; // png, svg
+    
+    public BarcodeBatchRequest() {}
+    
+    // Getters and Setters
+    public List<String> getCodes() {
+        return codes;
+    }
+    
+    public void setCodes(List<String> codes) {
+        this.codes = codes;
+    }
+    
+    public int getWidth() {
+        return width;
+    }
+    
+    public void setWidth(int width) {
+        this.width = width;
+    }
+    
+    public int getHeight() {
+        return height;
+    }
+    
+    public void setHeight(int height) {
+        this.height = height;
+    }
+    
+    public String getFormat() {
+        return format;
+    }
+    
+    public void setFormat(String format) {
+        this.format = format;
+    }
+}
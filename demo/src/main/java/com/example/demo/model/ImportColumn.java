@@ -0,0 +1,45 @@
+package com.example.demo.model;
+
+// Import'un kullandığı Excel sütunları: başlık adları ve bilinen şablondaki (pazaryeri sipariş raporu) varsayılan konumları
+public enum ImportColumn {
+    BARCODE(0, true, "Barkod"),
+    PACKAGE_NO(1, false, "Paket No"),
+    ORDER_DATE(3, false, "Sipariş Tarihi"),
+    CARGO_CODE(6, false, "Kargo Kodu"),
+    ORDER_NUMBER(7, true, "Sipariş Numarası", "Sipariş No"),
+    CUSTOMER_NAME(8, false, "Alıcı"),
+    ADDRESS(9, false, "Teslimat Adresi"),
+    CITY(10, false, "İl"),
+    DISTRICT(11, false, "İlçe"),
+    PRODUCT_NAME(12, false, "Ürün Adı"),
+    EMAIL(16, false, "E-Posta", "E-Mail"),
+    BRAND(18, false, "Marka"),
+    STOCK_CODE(19, true, "Stok Kodu");
+
+    private final int defaultIndex;
+    private final boolean required;
+    private final String[] headers;
+
+    ImportColumn(int defaultIndex, boolean required, String... headers) {
+        this.defaultIndex = defaultIndex;
+        this.required = required;
+        this.headers = headers;
+    }
+
+    public int getDefaultIndex() {
+        return defaultIndex;
+    }
+
+    // Bu alan bulunamazsa satırlar kaydedilemez
+    public boolean isRequired() {
+        return required;
+    }
+
+    public String getDisplayName() {
+        return headers[0];
+    }
+
+    public String[] getHeaders() {
+        return headers.clone();
+    }
+}
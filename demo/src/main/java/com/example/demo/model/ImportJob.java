@@ -0,0 +1,180 @@
+package com.example.demo.model;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Arka planda çalışan bir Excel import işinin durumu ve ilerleme sayaçları
+public class ImportJob {
+    private final String id;
+    private final String fileName;
+    private final Path file;
+    private final boolean streaming;
+    private final String contentHash;
+    private final long fileSize;
+    private final LocalDateTime createdAt;
+    
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong rowsPersisted = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private volatile long rowsTotal;
+    
+    private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile long startedNanos;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile Map<String, Object> result;
+    private volatile String error;
+    private volatile Future<?> future;
+    
+    public ImportJob(String fileName, Path file, boolean streaming, String contentHash, long fileSize) {
+        this.id = UUID.randomUUID().toString();
+        this.fileName = fileName;
+        this.file = file;
+        this.streaming = streaming;
+        this.contentHash = contentHash;
+        this.fileSize = fileSize;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public void markRunning() {
+        this.startedNanos = System.nanoTime();
+        this.startedAt = LocalDateTime.now();
+        this.status = ImportJobStatus.RUNNING;
+    }
+    
+    public void markFinished(ImportJobStatus status) {
+        this.finishedAt = LocalDateTime.now();
+        this.status = status;
+    }
+    
+    // Satır/saniye ve kalan süre tahmini (ayrıştırma + kaydetme toplam iş üzerinden)
+    public Map<String, Object> toStatusMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("jobId", id);
+        map.put("fileName", fileName);
+        map.put("status", status.name());
+        map.put("rowsTotal", rowsTotal);
+        map.put("rowsParsed", rowsParsed.get());
+        map.put("rowsPersisted", rowsPersisted.get());
+        map.put("rowsFailed", rowsFailed.get());
+        map.put("createdAt", createdAt);
+        map.put("startedAt", startedAt);
+        map.put("finishedAt", finishedAt);
+        
+        if (startedAt != null) {
+            double elapsedSeconds = (System.nanoTime() - startedNanos) / 1_000_000_000.0;
+            if (elapsedSeconds > 0) {
+                long parsed = rowsParsed.get();
+                map.put("rowsPerSecond", Math.round(parsed / elapsedSeconds));
+                
+                long done = parsed + rowsPersisted.get() + rowsFailed.get();
+                long totalWork = rowsTotal * 2;
+                if (status == ImportJobStatus.RUNNING && done > 0 && totalWork > done) {
+                    map.put("etaSeconds", Math.round((totalWork - done) / (done / elapsedSeconds)));
+                }
+            }
+        }
+        if (result != null) {
+            map.put("result", result);
+        }
+        if (error != null) {
+            map.put("error", error);
+        }
+        return map;
+    }
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public String getFileName() {
+        return fileName;
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+    
+    public boolean isStreaming() {
+        return streaming;
+    }
+    
+    public String getContentHash() {
+        return contentHash;
+    }
+    
+    public long getFileSize() {
+        return fileSize;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public AtomicLong getRowsParsed() {
+        return rowsParsed;
+    }
+    
+    public AtomicLong getRowsPersisted() {
+        return rowsPersisted;
+    }
+    
+    public AtomicLong getRowsFailed() {
+        return rowsFailed;
+    }
+    
+    public long getRowsTotal() {
+        return rowsTotal;
+    }
+    
+    public void setRowsTotal(long rowsTotal) {
+        this.rowsTotal = rowsTotal;
+    }
+    
+    public ImportJobStatus getStatus() {
+        return status;
+    }
+    
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+    
+    public void setCancelRequested(boolean cancelRequested) {
+        this.cancelRequested = cancelRequested;
+    }
+    
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public Map<String, Object> getResult() {
+        return result;
+    }
+    
+    public void setResult(Map<String, Object> result) {
+        this.result = result;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+    
+    public Future<?> getFuture() {
+        return future;
+    }
+    
+    public void setFuture(Future<?> future) {
+        this.future = future;
+    }
+}
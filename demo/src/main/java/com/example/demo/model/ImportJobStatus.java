@@ -0,0 +1,23 @@
+package com.example.demo.model;
+
+public enum ImportJobStatus {
+    QUEUED("Sırada"),
+    RUNNING("İşleniyor"),
+    COMPLETED("Tamamlandı"),
+    FAILED("Hata"),
+    CANCELLED("İptal");
+    
+    private final String displayName;
+    
+    ImportJobStatus(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
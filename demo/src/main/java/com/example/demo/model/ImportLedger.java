@@ -0,0 +1,176 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Daha önce içe aktarılmış dosyaların kaydı (SHA-256 içerik özeti ile)
+@Entity
+@Table(name = "import_ledger")
+public class ImportLedger {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "content_hash", unique = true, nullable = false, length = 64)
+    private String contentHash;
+    
+    @Column(name = "original_filename")
+    private String originalFilename;
+    
+    @Column(name = "archive_path")
+    private String archivePath;
+    
+    @Column(name = "file_size")
+    private Long fileSize;
+    
+    @Column
+    private Long importedCount;
+    
+    @Column
+    private Integer orderCount;
+    
+    @Column
+    private Integer newOrderCount;
+    
+    @Column
+    private Integer updatedOrderCount;
+    
+    @Column
+    private Long errorCount;
+    
+    @Column(length = 1000)
+    private String message;
+    
+    // Uyarı özeti, ör. "Barkod boş: 3, Stok kodu boş: 1"
+    @Column(length = 1000)
+    private String diagnostics;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public ImportLedger() {}
+    
+    // Önceki import sonucunu /import yanıtı biçiminde döner
+    public Map<String, Object> toResultMap() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("duplicate", true);
+        response.put("importedCount", importedCount);
+        response.put("orderCount", orderCount);
+        response.put("newOrderCount", newOrderCount);
+        response.put("updatedOrderCount", updatedOrderCount);
+        response.put("errorCount", errorCount);
+        response.put("diagnosticsSummary", diagnostics != null ? diagnostics : "");
+        response.put("importedAt", createdAt);
+        response.put("message", "Bu dosya daha önce içe aktarıldı, tekrar işlenmedi. Önceki sonuç: " + message);
+        return response;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getContentHash() {
+        return contentHash;
+    }
+    
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+    
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+    
+    public void setOriginalFilename(String originalFilename) {
+        this.originalFilename = originalFilename;
+    }
+    
+    public String getArchivePath() {
+        return archivePath;
+    }
+    
+    public void setArchivePath(String archivePath) {
+        this.archivePath = archivePath;
+    }
+    
+    public Long getFileSize() {
+        return fileSize;
+    }
+    
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+    
+    public Long getImportedCount() {
+        return importedCount;
+    }
+    
+    public void setImportedCount(Long importedCount) {
+        this.importedCount = importedCount;
+    }
+    
+    public Integer getOrderCount() {
+        return orderCount;
+    }
+    
+    public void setOrderCount(Integer orderCount) {
+        this.orderCount = orderCount;
+    }
+    
+    public Integer getNewOrderCount() {
+        return newOrderCount;
+    }
+    
+    public void setNewOrderCount(Integer newOrderCount) {
+        this.newOrderCount = newOrderCount;
+    }
+    
+    public Integer getUpdatedOrderCount() {
+        return updatedOrderCount;
+    }
+    
+    public void setUpdatedOrderCount(Integer updatedOrderCount) {
+        this.updatedOrderCount = updatedOrderCount;
+    }
+    
+    public Long getErrorCount() {
+        return errorCount;
+    }
+    
+    public void setErrorCount(Long errorCount) {
+        this.errorCount = errorCount;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public String getDiagnostics() {
+        return diagnostics;
+    }
+    
+    public void setDiagnostics(String diagnostics) {
+        this.diagnostics = diagnostics;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.model;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Etiket PDF'i için seçim: ids verilirse o siparişler (verilen sırayla), yoksa durum / tarih filtresi
+public class LabelSheetRequest {
+    private List<Long> ids;
+    private OrderStatus status;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to; // dahil
+    
+    private String layout = "single"; // pdf - single: sayfa başına bir etiket (100x150 mm), a4: A4 üzerinde columns x rows
+    private int columns = 2;
+    private int rows = 4;
+    private String format = "pdf"; // pdf, zpl
+    private int dpi = 203; // zpl: yazıcı çözünürlüğü
+    
+    public LabelSheetRequest() {}
+    
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+    
+    public OrderStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDate getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+    
+    public LocalDate getTo() {
+        return to;
+    }
+    
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+    
+    public String getLayout() {
+        return layout;
+    }
+    
+    public void setLayout(String layout) {
+        this.layout = layout;
+    }
+    
+    public int getColumns() {
+        return columns;
+    }
+    
+    public void setColumns(int columns) {
+        this.columns = columns;
+    }
+    
+    public int getRows() {
+        return rows;
+    }
+    
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+    
+    public String getFormat() {
+        return format;
+    }
+    
+    public void setFormat(String format) {
+        this.format = format;
+    }
+    
+    public int getDpi() {
+        return dpi;
+    }
+    
+    public void setDpi(int dpi) {
+        this.dpi = dpi;
+    }
+}
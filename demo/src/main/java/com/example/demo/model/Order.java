@@ -6,7 +6,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    // Paketleme ekranı ("bugünkü SHIPPED", "tüm PENDING") ve sayfalı liste bu sırayla okur
+    @Index(name = "idx_orders_status_created_at", columnList = "status, created_at, id"),
+    @Index(name = "idx_orders_created_at", columnList = "created_at, id")
+})
 public class Order {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,92 @@
+package com.example.demo.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Paketleme ekranındaki grup: aynı alıcı + stok koduna ait siparişler, toplam adede göre 1li ... 5veUstu
+public class OrderGroupDTO {
+    private String groupType;
+    private String groupName;
+    private int count;
+    private int totalQuantity;
+    private double totalAmount;
+    private String barcode; // virgülle ayrılmış
+    private String stockCode; // virgülle ayrılmış
+    private List<Long> orderIds = new ArrayList<>();
+    private List<OrderSummaryDTO> items = new ArrayList<>(); // ayrıntılar: POST /api/orders/details
+    
+    public OrderGroupDTO() {}
+    
+    // Getters and Setters
+    public String getGroupType() {
+        return groupType;
+    }
+    
+    public void setGroupType(String groupType) {
+        this.groupType = groupType;
+    }
+    
+    public String getGroupName() {
+        return groupName;
+    }
+    
+    public void setGroupName(String groupName) {
+        this.groupName = groupName;
+    }
+    
+    public int getCount() {
+        return count;
+    }
+    
+    public void setCount(int count) {
+        this.count = count;
+    }
+    
+    public int getTotalQuantity() {
+        return totalQuantity;
+    }
+    
+    public void setTotalQuantity(int totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+    
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public void setTotalAmount(double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+    
+    public String getBarcode() {
+        return barcode;
+    }
+    
+    public void setBarcode(String barcode) {
+        this.barcode = barcode;
+    }
+    
+    public String getStockCode() {
+        return stockCode;
+    }
+    
+    public void setStockCode(String stockCode) {
+        this.stockCode = stockCode;
+    }
+    
+    public List<Long> getOrderIds() {
+        return orderIds;
+    }
+    
+    public void setOrderIds(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+    
+    public List<OrderSummaryDTO> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<OrderSummaryDTO> items) {
+        this.items = items;
+    }
+}
@@ -16,6 +16,7 @@ public class OrderImportData {
     private Integer quantity;
     private Double price;
     private String cargoCampaignCode;
+    private String packageNo;
     private Integer distinctProductCount; // Farklı Ürün Adedi
     
     public OrderImportData() {}
@@ -141,6 +142,14 @@ public class OrderImportData {
         this.orderDate = orderDate;
     }
     
+    public String getPackageNo() {
+        return packageNo;
+    }
+    
+    public void setPackageNo(String packageNo) {
+        this.packageNo = packageNo;
+    }
+    
     public Integer getDistinctProductCount() {
         return distinctProductCount;
     }
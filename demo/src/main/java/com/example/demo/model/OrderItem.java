@@ -5,7 +5,8 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items",
+       uniqueConstraints = @UniqueConstraint(name = "uk_order_items_line_key", columnNames = {"order_id", "line_key"}))
 public class OrderItem {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -32,6 +33,12 @@ public class OrderItem {
     @Column(name = "stock_code")
     private String stockCode;
     
+    // Excel import satırının doğal anahtarının 64-bit özeti (sipariş no + barkod + stok kodu + paket no).
+    // Aynı satır tekrar import edildiğinde yeni kalem eklenmez, mevcut kalem güncellenir.
+    @Column(name = "line_key")
+    @JsonIgnore
+    private Long lineKey;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -117,4 +124,12 @@ public class OrderItem {
     public void setStockCode(String stockCode) {
         this.stockCode = stockCode;
     }
+    
+    public Long getLineKey() {
+        return lineKey;
+    }
+    
+    public void setLineKey(Long lineKey) {
+        this.lineKey = lineKey;
+    }
 }
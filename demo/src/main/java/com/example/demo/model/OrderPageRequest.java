@@ -0,0 +1,103 @@
+package com.example.demo.model;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Sayfalı sipariş listesi: filtreler sunucuda uygulanır, sayfalar (createdAt, id) sırasıyla cursor üzerinden ilerler
+public class OrderPageRequest {
+    private List<OrderStatus> status; // boşsa tüm durumlar
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdFrom;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdTo; // dahil
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate updatedFrom;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate updatedTo; // dahil
+    
+    private String brand;
+    private String stockCode; // siparişin ya da kalemlerinden birinin stok kodu
+    private int size = 100;
+    private String cursor; // önceki sayfanın nextCursor değeri
+    
+    public OrderPageRequest() {}
+    
+    // Getters and Setters
+    public List<OrderStatus> getStatus() {
+        return status;
+    }
+    
+    public void setStatus(List<OrderStatus> status) {
+        this.status = status;
+    }
+    
+    public LocalDate getCreatedFrom() {
+        return createdFrom;
+    }
+    
+    public void setCreatedFrom(LocalDate createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+    
+    public LocalDate getCreatedTo() {
+        return createdTo;
+    }
+    
+    public void setCreatedTo(LocalDate createdTo) {
+        this.createdTo = createdTo;
+    }
+    
+    public LocalDate getUpdatedFrom() {
+        return updatedFrom;
+    }
+    
+    public void setUpdatedFrom(LocalDate updatedFrom) {
+        this.updatedFrom = updatedFrom;
+    }
+    
+    public LocalDate getUpdatedTo() {
+        return updatedTo;
+    }
+    
+    public void setUpdatedTo(LocalDate updatedTo) {
+        this.updatedTo = updatedTo;
+    }
+    
+    public String getBrand() {
+        return brand;
+    }
+    
+    public void setBrand(String brand) {
+        this.brand = brand;
+    }
+    
+    public String getStockCode() {
+        return stockCode;
+    }
+    
+    public void setStockCode(String stockCode) {
+        this.stockCode = stockCode;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    public String getCursor() {
+        return cursor;
+    }
+    
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Toplu durum geçişi: ids verilirse o siparişler, yoksa currentStatus (zorunlu) + oluşturulma tarihi filtresine uyanlar
+public class OrderStatusBulkRequest {
+    private List<Long> ids;
+    private OrderStatus status; // yeni durum
+    private OrderStatus currentStatus;
+    private LocalDate from;
+    private LocalDate to; // dahil
+    
+    public OrderStatusBulkRequest() {}
+    
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+    
+    public OrderStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+    
+    public OrderStatus getCurrentStatus() {
+        return currentStatus;
+    }
+    
+    public void setCurrentStatus(OrderStatus currentStatus) {
+        this.currentStatus = currentStatus;
+    }
+    
+    public LocalDate getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+    
+    public LocalDate getTo() {
+        return to;
+    }
+    
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.model;
+
+// Paketleme grubundaki siparişin özeti: listeleme için yeterli alanlar, adres ve kalemler yok
+public class OrderSummaryDTO {
+    private Long id;
+    private String orderNumber;
+    private String customerName;
+    private String stockCode;
+    private String barcode;
+    private int totalItems;
+    private double totalAmount;
+    
+    public OrderSummaryDTO() {}
+    
+    public OrderSummaryDTO(Long id, String orderNumber, String customerName, String stockCode, String barcode,
+                           int totalItems, double totalAmount) {
+        this.id = id;
+        this.orderNumber = orderNumber;
+        this.customerName = customerName;
+        this.stockCode = stockCode;
+        this.barcode = barcode;
+        this.totalItems = totalItems;
+        this.totalAmount = totalAmount;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+    
+    public void setOrderNumber(String orderNumber) {
+        this.orderNumber = orderNumber;
+    }
+    
+    public String getCustomerName() {
+        return customerName;
+    }
+    
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+    
+    public String getStockCode() {
+        return stockCode;
+    }
+    
+    public void setStockCode(String stockCode) {
+        this.stockCode = stockCode;
+    }
+    
+    public String getBarcode() {
+        return barcode;
+    }
+    
+    public void setBarcode(String barcode) {
+        this.barcode = barcode;
+    }
+    
+    public int getTotalItems() {
+        return totalItems;
+    }
+    
+    public void setTotalItems(int totalItems) {
+        this.totalItems = totalItems;
+    }
+    
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public void setTotalAmount(double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+}
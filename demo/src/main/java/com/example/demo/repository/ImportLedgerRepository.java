@@ -0,0 +1,13 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ImportLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ImportLedgerRepository extends JpaRepository<ImportLedger, Long> {
+    
+    Optional<ImportLedger> findByContentHash(String contentHash);
+}
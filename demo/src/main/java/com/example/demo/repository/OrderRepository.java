@@ -2,12 +2,16 @@ package com.example.demo.repository;
 
 import com.example.demo.model.Order;
 import com.example.demo.model.OrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +20,9 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     Optional<Order> findByOrderNumber(String orderNumber);
     
+    // Import sırasında toplu sipariş çözümlemesi için sadece id/orderNumber döner (orderItems yüklenmez)
+    List<OrderNumberId> findByOrderNumberIn(Collection<String> orderNumbers);
+    
     List<Order> findByStatus(OrderStatus status);
     
     List<Order> findByCustomerNameContainingIgnoreCase(String customerName);
@@ -26,11 +33,134 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o WHERE o.customerName LIKE %:searchTerm% OR o.orderNumber LIKE %:searchTerm% OR o.address LIKE %:searchTerm%")
     List<Order> searchOrders(@Param("searchTerm") String searchTerm);
     
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.status = :status")
-    Long countByStatus(@Param("status") OrderStatus status);
+    // Etiket PDF'i: yalnızca id'ler, oluşturulma sırasıyla; boş parametre filtreyi devre dışı bırakır
+    @Query("SELECT o.id FROM Order o WHERE (:status IS NULL OR o.status = :status) " +
+           "AND (:from IS NULL OR o.createdAt >= :from) AND (:to IS NULL OR o.createdAt < :to) " +
+           "ORDER BY o.createdAt, o.id")
+    List<Long> findIdsForLabels(@Param("status") OrderStatus status,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to);
+    
+    // Sayfalı liste (keyset): bir önceki sayfanın son (createdAt, id) değerinden sonrası; boş parametre filtreyi kapatır.
+    // createdAt değeri olmayan siparişler en başta gelir (afterCreatedAt null, afterId dolu: o bölümün içindeyiz).
+    // Durum + tarih filtresi idx_orders_status_created_at indeksini kullanır
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses " +
+           "AND (:createdFrom IS NULL OR o.createdAt >= :createdFrom) AND (:createdTo IS NULL OR o.createdAt < :createdTo) " +
+           "AND (:updatedFrom IS NULL OR o.updatedAt >= :updatedFrom) AND (:updatedTo IS NULL OR o.updatedAt < :updatedTo) " +
+           "AND (:brand IS NULL OR o.brand = :brand) " +
+           "AND (:stockCode IS NULL OR o.stockCode = :stockCode " +
+           "     OR EXISTS (SELECT 1 FROM OrderItem i WHERE i.order = o AND i.stockCode = :stockCode)) " +
+           "AND (:afterId IS NULL " +
+           "     OR (:afterCreatedAt IS NULL AND (o.createdAt IS NOT NULL OR o.id > :afterId)) " +
+           "     OR o.createdAt > :afterCreatedAt " +
+           "     OR (o.createdAt = :afterCreatedAt AND o.id > :afterId)) " +
+           "ORDER BY o.createdAt NULLS FIRST, o.id")
+    List<Long> findPageIds(@Param("statuses") Collection<OrderStatus> statuses,
+                           @Param("createdFrom") LocalDateTime createdFrom,
+                           @Param("createdTo") LocalDateTime createdTo,
+                           @Param("updatedFrom") LocalDateTime updatedFrom,
+                           @Param("updatedTo") LocalDateTime updatedTo,
+                           @Param("brand") String brand,
+                           @Param("stockCode") String stockCode,
+                           @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                           @Param("afterId") Long afterId,
+                           Limit limit);
+    
+    // Sipariş listesi: tüm siparişler kalemleri ve ürünleriyle tek sorguda (sipariş sayısından bağımsız)
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems i LEFT JOIN FETCH i.product ORDER BY o.id")
+    List<Order> findAllWithItems();
+    
+    // Kalemler ve ürünleriyle tek sorguda; sonuç oturum dışında (akış thread'inde) kullanılabilir
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems i LEFT JOIN FETCH i.product WHERE o.id IN :ids")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Paketleme ekranı gruplaması için sipariş başına kalem satırları (yalnızca gruplamada kullanılan alanlar),
+    // siparişler oluşturulma sırasıyla ve kalemleri ardışık gelir
+    @Query("SELECT o.id AS orderId, o.orderNumber AS orderNumber, o.customerName AS customerName, " +
+           "o.stockCode AS stockCode, o.barcode AS barcode, o.totalItems AS totalItems, o.totalAmount AS totalAmount, " +
+           "i.stockCode AS itemStockCode, p.barcode AS productBarcode, p.name AS productName " +
+           "FROM Order o LEFT JOIN o.orderItems i LEFT JOIN i.product p " +
+           "WHERE o.status = :status AND (:from IS NULL OR o.createdAt >= :from) AND (:to IS NULL OR o.createdAt < :to) " +
+           "ORDER BY o.createdAt, o.id, i.id")
+    List<GroupingRow> findGroupingRows(@Param("status") OrderStatus status,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
+    
+    // Toplu durum geçişi tek UPDATE ile; zaten hedef durumdaki siparişlere (ve updatedAt'lerine) dokunulmaz
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.updatedAt = :now WHERE o.id IN :ids AND o.status <> :status")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("status") OrderStatus status,
+                           @Param("now") LocalDateTime now);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.updatedAt = :now WHERE o.status = :currentStatus " +
+           "AND o.status <> :status AND (:from IS NULL OR o.createdAt >= :from) AND (:to IS NULL OR o.createdAt < :to)")
+    int updateStatusByFilter(@Param("currentStatus") OrderStatus currentStatus,
+                             @Param("from") LocalDateTime from,
+                             @Param("to") LocalDateTime to,
+                             @Param("status") OrderStatus status,
+                             @Param("now") LocalDateTime now);
+    
+    long countByIdIn(Collection<Long> ids);
+    
+    // Rapor ekranı: tarih aralığında (ve markada) durum başına adet ve toplamlar tek GROUP BY ile
+    @Query("SELECT o.status AS status, COUNT(o) AS orderCount, SUM(o.totalAmount) AS totalAmount, SUM(o.totalItems) AS totalItems " +
+           "FROM Order o WHERE (:from IS NULL OR o.createdAt >= :from) AND (:to IS NULL OR o.createdAt < :to) " +
+           "AND (:brand IS NULL OR o.brand = :brand) GROUP BY o.status")
+    List<StatusTotals> sumByStatus(@Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to,
+                                   @Param("brand") String brand);
+    
+    // Durum sayaçlarının ilk yüklemesi: oluşturulma günü + durum başına
+    @Query("SELECT CAST(o.createdAt AS LocalDate) AS day, o.status AS status, COUNT(o) AS orderCount, " +
+           "SUM(o.totalAmount) AS totalAmount, SUM(o.totalItems) AS totalItems " +
+           "FROM Order o GROUP BY CAST(o.createdAt AS LocalDate), o.status")
+    List<DailyStatusTotals> sumByDayAndStatus();
+    
+    // Toplu güncellemede değişecek siparişlerin gün + durum dağılımı (UPDATE ile aynı koşul)
+    @Query("SELECT CAST(o.createdAt AS LocalDate) AS day, o.status AS status, COUNT(o) AS orderCount, " +
+           "SUM(o.totalAmount) AS totalAmount, SUM(o.totalItems) AS totalItems " +
+           "FROM Order o WHERE o.id IN :ids AND o.status <> :status GROUP BY CAST(o.createdAt AS LocalDate), o.status")
+    List<DailyStatusTotals> sumByDayAndStatusForIds(@Param("ids") Collection<Long> ids,
+                                                    @Param("status") OrderStatus status);
+    
+    @Query("SELECT CAST(o.createdAt AS LocalDate) AS day, o.status AS status, COUNT(o) AS orderCount, " +
+           "SUM(o.totalAmount) AS totalAmount, SUM(o.totalItems) AS totalItems " +
+           "FROM Order o WHERE o.status = :currentStatus AND o.status <> :status " +
+           "AND (:from IS NULL OR o.createdAt >= :from) AND (:to IS NULL OR o.createdAt < :to) " +
+           "GROUP BY CAST(o.createdAt AS LocalDate), o.status")
+    List<DailyStatusTotals> sumByDayAndStatusForFilter(@Param("currentStatus") OrderStatus currentStatus,
+                                                       @Param("from") LocalDateTime from,
+                                                       @Param("to") LocalDateTime to,
+                                                       @Param("status") OrderStatus status);
+    
+    interface OrderNumberId {
+        Long getId();
+        String getOrderNumber();
+    }
+    
+    interface StatusTotals {
+        OrderStatus getStatus();
+        Long getOrderCount();
+        Double getTotalAmount();
+        Long getTotalItems();
+    }
+    
+    interface DailyStatusTotals extends StatusTotals {
+        LocalDate getDay();
+    }
+    
+    interface GroupingRow {
+        Long getOrderId();
+        String getOrderNumber();
+        String getCustomerName();
+        String getStockCode();
+        String getBarcode();
+        Integer getTotalItems();
+        Double getTotalAmount();
+        String getItemStockCode();
+        String getProductBarcode();
+        String getProductName();
+    }
 }
-
-
-
-
-
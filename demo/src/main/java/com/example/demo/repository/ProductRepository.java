@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +15,9 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     Optional<Product> findByBarcode(String barcode);
     
+    // Import sırasında toplu barkod çözümlemesi için sadece id/barcode döner
+    List<BarcodeId> findByBarcodeIn(Collection<String> barcodes);
+    
     List<Product> findByNameContainingIgnoreCase(String name);
     
     Optional<Product> findByStockCode(String stockCode);
@@ -22,4 +26,9 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> searchProducts(@Param("searchTerm") String searchTerm);
     
     List<Product> findByStockLessThan(Integer stock);
+    
+    interface BarcodeId {
+        Long getId();
+        String getBarcode();
+    }
 }
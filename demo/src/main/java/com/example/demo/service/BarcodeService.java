@@ -1,37 +1,426 @@
 package com.example.demo.service;
 
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.EncodeHintType;
+import com.example.demo.util.BarcodePattern;
+import com.example.demo.util.BarcodeSvgWriter;
+import com.example.demo.util.BitMatrixPngEncoder;
+import com.example.demo.util.ByteBoundedLruCache;
+import com.example.demo.util.DiskContentStore;
 import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
-import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 import com.google.zxing.oned.EAN13Writer;
 import com.google.zxing.oned.Code128Writer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.HashMap;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class BarcodeService {
     
-
+    private static final Logger log = LoggerFactory.getLogger(BarcodeService.class);
+    
+    private static final int MARGIN = 1;
+    
+    // Görsel üretimi (encoder, ölçekleme, PNG yazımı) değişirse artırılmalı; istemcilerdeki eski ETag'ler geçersiz olur
+    private static final String RENDERER_VERSION = "2";
+    
+    // Baskı önizleme, baskı ve tekrar baskı aynı kargo kodlarını tekrar tekrar ister; üretilen görseller
+    // (metin, format, boyut, kenar boşluğu) anahtarıyla bayt sınırlı LRU önbellekte tutulur
+    private final ByteBoundedLruCache<BarcodeImageKey> imageCache;
+    
+    // Code128 tek boyutludur: metin başına modül deseni (çubuk/boşluk genişlikleri) bir kez üretilir,
+    // her boyut bu desenden rasterleştirilir
+    private final ByteBoundedLruCache<String> patternCache;
+    
+    // Yeniden başlatmalarda kaybolmayan ikinci katman: dosya adı render anahtarının özeti (içerik adresli)
+    private final DiskContentStore diskStore;
+    
+    // Siyah/beyaz görsel için BufferedImage yerine doğrudan 1-bit PNG
+    private final BitMatrixPngEncoder pngEncoder;
     
+    private final ConcurrentHashMap<BarcodeImageKey, CompletableFuture<byte[]>> inFlightRenders = new ConcurrentHashMap<>();
+    private final AtomicLong renders = new AtomicLong();
+    private final AtomicLong coalescedRenders = new AtomicLong();
+    
+    @Autowired
+    private ThreadPoolExecutor barcodeRenderExecutor;
+    
+    public BarcodeService(@Value("${barcode.cache.max-bytes:33554432}") long cacheMaxBytes,
+                          @Value("${barcode.pattern-cache.max-bytes:4194304}") long patternCacheMaxBytes,
+                          @Value("${barcode.png.deflate-level:6}") int deflateLevel,
+                          @Value("${barcode.disk-cache.dir:cache/barcodes}") String diskCacheDir,
+                          @Value("${barcode.disk-cache.max-bytes:268435456}") long diskCacheMaxBytes) {
+        this.imageCache = new ByteBoundedLruCache<>(cacheMaxBytes, BarcodeImageKey::estimatedSize);
+        this.patternCache = new ByteBoundedLruCache<>(patternCacheMaxBytes, text -> 64L + 2L * text.length());
+        this.pngEncoder = new BitMatrixPngEncoder(deflateLevel);
+        this.diskStore = diskCacheMaxBytes > 0 ? openDiskStore(Paths.get(diskCacheDir), diskCacheMaxBytes) : null;
+    }
+    
+    // Disk katmanı açılamazsa (izin, salt okunur dosya sistemi) yalnızca bellek önbelleğiyle devam edilir
+    private static DiskContentStore openDiskStore(Path directory, long maxBytes) {
+        try {
+            return new DiskContentStore(directory, maxBytes);
+        } catch (IOException e) {
+            log.warn("Barkod disk önbelleği açılamadı ({}): {}", directory, e.getMessage());
+            return null;
+        }
+    }
 
     public byte[] generateCode128Barcode(String barcodeText, int width, int height) throws WriterException, IOException {
-        Code128Writer code128Writer = new Code128Writer();
-        Map<EncodeHintType, Object> hints = new HashMap<>();
-        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
-        hints.put(EncodeHintType.MARGIN, 1);
+        BarcodeImageKey key = new BarcodeImageKey(barcodeText, "PNG", width, height, MARGIN);
+        byte[] cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        return renderOnce(key, barcodeText, false, width, height);
+    }
+    
+    // Aynı modül deseninden vektör çıktı; birkaç yüz bayt, boyut yalnızca width/height niteliklerini değiştirir
+    public byte[] generateCode128Svg(String barcodeText, int width, int height) {
+        BarcodeImageKey key = new BarcodeImageKey(barcodeText, "SVG", width, height, MARGIN);
+        byte[] cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        return renderOnce(key, barcodeText, true, width, height);
+    }
+    
+    // HTTP yanıtı için: bellekte yoksa diskteki dosya olduğu gibi Resource olarak gönderilir (heap'e okunmaz),
+    // hiçbir katmanda yoksa üretilip iki katmana da yazılır
+    public Resource code128Resource(String barcodeText, boolean svg, int width, int height) {
+        BarcodeImageKey key = new BarcodeImageKey(barcodeText, svg ? "SVG" : "PNG", width, height, MARGIN);
+        byte[] cached = imageCache.get(key);
+        if (cached != null) {
+            return new ByteArrayResource(cached);
+        }
+        Resource file = openDiskImage(key);
+        if (file != null) {
+            return file;
+        }
+        return new ByteArrayResource(renderOnce(key, barcodeText, svg, width, height));
+    }
+    
+    // Dosya burada açılır: yanıt yazılmadan önce tahliye edilse bile açık kanal okunabilir kalır.
+    // Açılamazsa (silinmiş, okuma hatası) null döner ve görsel yeniden üretilir
+    private Resource openDiskImage(BarcodeImageKey key) {
+        if (diskStore == null) {
+            return null;
+        }
+        FileChannel channel = null;
+        try {
+            channel = diskStore.open(key.fileName());
+            if (channel == null) {
+                return null;
+            }
+            return new OpenFileResource(channel, channel.size(), key.fileName());
+        } catch (IOException e) {
+            log.warn("Barkod disk önbelleği okunamadı: {}", e.getMessage());
+            closeQuietly(channel);
+            return null;
+        }
+    }
+    
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Yok sayılır
+            }
+        }
+    }
+    
+    // Tek seferlik okunan, uzunluğu bilinen açık dosya; akış yanıt yazılınca kapanır
+    private static final class OpenFileResource extends InputStreamResource {
+        private final long size;
+        
+        OpenFileResource(FileChannel channel, long size, String name) {
+            super(Channels.newInputStream(channel), "barkod disk önbelleği [" + name + "]");
+            this.size = size;
+        }
+        
+        @Override
+        public long contentLength() {
+            return size;
+        }
+    }
+    
+    // Single-flight: aynı anahtar için eş zamanlı istekler tek bir üretimi bekler. İlk gelen üretip sonucu
+    // önbelleklere yazar, diğerleri aynı CompletableFuture'ı bekler; hata da hepsine aynı şekilde döner.
+    private byte[] renderOnce(BarcodeImageKey key, String barcodeText, boolean svg, int width, int height) {
+        CompletableFuture<byte[]> render = new CompletableFuture<>();
+        CompletableFuture<byte[]> inFlight = inFlightRenders.putIfAbsent(key, render);
+        if (inFlight != null) {
+            coalescedRenders.incrementAndGet();
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+        try {
+            // lookup ile putIfAbsent arasında başka bir üretim bitmiş olabilir: önbellekte varsa tekrar üretilmez
+            byte[] image = lookup(key);
+            if (image == null) {
+                image = store(key, renderCode128(barcodeText, svg, width, height));
+                renders.incrementAndGet();
+            }
+            render.complete(image);
+            return image;
+        } catch (Throwable e) {
+            // Error dahil (örn. çok büyük boyutta OutOfMemoryError): bekleyenler takılı kalmaz, aynı hatayı alır
+            render.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRenders.remove(key, render);
+        }
+    }
+    
+    // Testte üretimi geciktirmek / hata verdirmek için paket içinden ezilebilir
+    byte[] renderCode128(String barcodeText, boolean svg, int width, int height) {
+        if (barcodeText.isEmpty()) {
+            throw new IllegalArgumentException("Barkod metni boş");
+        }
+        if (svg) {
+            return BarcodeSvgWriter.write(code128Pattern(barcodeText), width, height, MARGIN)
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Negatif boyut: " + width + "x" + height);
+        }
+        // Code128Writer.encode(text, CODE_128, width, height, hints) ile aynı yerleşim, tam matris kurulmadan
+        boolean[] row = BarcodePattern.rasterizeRow(code128Pattern(barcodeText), width, MARGIN);
+        return pngEncoder.encodeRepeatedRow(row, Math.max(1, height));
+    }
+    
+    // Bellek, sonra disk; diskten okunan görsel belleğe alınır
+    private byte[] lookup(BarcodeImageKey key) {
+        byte[] image = imageCache.get(key);
+        if (image != null || diskStore == null) {
+            return image;
+        }
+        try {
+            image = diskStore.read(key.fileName());
+        } catch (IOException e) {
+            log.warn("Barkod disk önbelleği okunamadı: {}", e.getMessage());
+            return null;
+        }
+        if (image != null) {
+            imageCache.put(key, image);
+        }
+        return image;
+    }
+    
+    // Disk yazma hatası isteği bozmaz; görsel yine de döner
+    private byte[] store(BarcodeImageKey key, byte[] image) {
+        imageCache.put(key, image);
+        if (diskStore != null) {
+            try {
+                diskStore.write(key.fileName(), image);
+            } catch (IOException e) {
+                log.warn("Barkod disk önbelleğine yazılamadı: {}", e.getMessage());
+            }
+        }
+        return image;
+    }
+    
+    // Toplu baskı için tek istek: tekrarsız kodlar thread sayısı kadar dilime bölünüp paralel üretilir,
+    // önbellekteki görseller yeniden kullanılır. Sonuç kod -> data URI; üretilemeyen kodlar "errors" altında.
+    public Map<String, Object> renderBatch(Collection<String> codes, boolean svg, int width, int height) {
+        List<String> distinct = new ArrayList<>();
+        for (String code : new LinkedHashSet<>(codes)) {
+            if (code != null && !code.isBlank()) {
+                distinct.add(code);
+            }
+        }
+        String[] images = new String[distinct.size()];
+        String[] errors = new String[distinct.size()];
         
-        BitMatrix bitMatrix = code128Writer.encode(barcodeText, BarcodeFormat.CODE_128, width, height, hints);
+        int slices = Math.max(1, Math.min(distinct.size(), barcodeRenderExecutor.getCorePoolSize()));
+        int sliceSize = (distinct.size() + slices - 1) / slices;
+        List<Future<?>> futures = new ArrayList<>(slices);
+        for (int start = 0; start < distinct.size(); start += sliceSize) {
+            int from = start;
+            int to = Math.min(distinct.size(), start + sliceSize);
+            futures.add(barcodeRenderExecutor.submit(() -> {
+                for (int i = from; i < to; i++) {
+                    try {
+                        images[i] = toDataUri(distinct.get(i), svg, width, height);
+                    } catch (Exception e) {
+                        errors[i] = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                    }
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Toplu barkod üretimi kesildi", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Toplu barkod üretimi başarısız", e.getCause());
+        }
         
-        ByteArrayOutputStream pngOutputStream = new ByteArrayOutputStream();
-        MatrixToImageWriter.writeToStream(bitMatrix, "PNG", pngOutputStream);
-        return pngOutputStream.toByteArray();
+        Map<String, String> imageMap = new LinkedHashMap<>();
+        Map<String, String> errorMap = new LinkedHashMap<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            if (images[i] != null) {
+                imageMap.put(distinct.get(i), images[i]);
+            } else {
+                errorMap.put(distinct.get(i), errors[i]);
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("format", svg ? "svg" : "png");
+        result.put("width", width);
+        result.put("height", height);
+        result.put("images", imageMap);
+        result.put("errors", errorMap);
+        return result;
+    }
+    
+    private String toDataUri(String code, boolean svg, int width, int height) throws WriterException, IOException {
+        if (svg) {
+            return "data:image/svg+xml;base64," + Base64.getEncoder().encodeToString(generateCode128Svg(code, width, height));
+        }
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(generateCode128Barcode(code, width, height));
+    }
+    
+    // Görsel yalnızca parametrelerine bağlı olduğundan ETag üretmeden, render anahtarından hesaplanır
+    public String code128ETag(String barcodeText, String format, int width, int height) {
+        return new BarcodeImageKey(barcodeText, format, width, height, MARGIN).eTag();
+    }
+    
+    // Geçersiz karakter içeren metin için IllegalArgumentException (Code128Writer'dan)
+    public byte[] code128Pattern(String barcodeText) {
+        byte[] runs = patternCache.get(barcodeText);
+        if (runs == null) {
+            runs = BarcodePattern.toRuns(new Code128Writer().encode(barcodeText));
+            patternCache.put(barcodeText, runs);
+        }
+        return runs;
+    }
+    
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("images", imageCache.getStats());
+        stats.put("patterns", patternCache.getStats());
+        if (diskStore != null) {
+            stats.put("disk", diskStore.getStats());
+        }
+        // renders: gerçekten üretilen görseller, coalesced: devam eden bir üretimi bekleyerek karşılanan istekler
+        Map<String, Object> singleFlight = new LinkedHashMap<>();
+        singleFlight.put("renders", renders.get());
+        singleFlight.put("coalesced", coalescedRenders.get());
+        singleFlight.put("inFlight", inFlightRenders.size());
+        stats.put("singleFlight", singleFlight);
+        return stats;
+    }
+    
+    public void clearCache() {
+        imageCache.clear();
+        patternCache.clear();
+        if (diskStore != null) {
+            try {
+                diskStore.clear();
+            } catch (IOException e) {
+                log.warn("Barkod disk önbelleği temizlenemedi: {}", e.getMessage());
+            }
+        }
+    }
+    
+    private static final class BarcodeImageKey {
+        private final String text;
+        private final String format;
+        private final int width;
+        private final int height;
+        private final int margin;
+        
+        BarcodeImageKey(String text, String format, int width, int height, int margin) {
+            this.text = text;
+            this.format = format;
+            this.width = width;
+            this.height = height;
+            this.margin = margin;
+        }
+        
+        String eTag() {
+            return "\"" + digest() + "\"";
+        }
+        
+        // Renderer sürümü özete dahil: sürüm değişince eski dosyalar okunmaz, LRU ile zamanla silinir
+        String fileName() {
+            return digest() + "." + format.toLowerCase(Locale.ROOT);
+        }
+        
+        private String digest() {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                String key = RENDERER_VERSION + "|" + format + "|" + width + "x" + height + "|" + margin + "|" + text;
+                byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+                return HexFormat.of().formatHex(hash, 0, 16);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        
+        // Anahtar nesnesi + metin + LinkedHashMap girdisi için yaklaşık bayt
+        long estimatedSize() {
+            return 96L + 2L * text.length();
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof BarcodeImageKey)) return false;
+            BarcodeImageKey other = (BarcodeImageKey) o;
+            return width == other.width && height == other.height && margin == other.margin
+                    && text.equals(other.text) && format.equals(other.format);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(text, format, width, height, margin);
+        }
     }
 
     
@@ -0,0 +1,455 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ImportColumn;
+import com.example.demo.model.ImportJob;
+import com.example.demo.model.ImportLedger;
+import com.example.demo.model.OrderImportData;
+import com.example.demo.repository.ImportLedgerRepository;
+import com.example.demo.util.XlsxStreamingReader;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Service
+public class ExcelImportService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ExcelImportService.class);
+    
+    // Satır bazında ayrıntı yalnızca TRACE seviyesinde, asenkron appender üzerinden yazılır (logback-spring.xml)
+    private static final Logger rowLog = LoggerFactory.getLogger("com.example.demo.import.rows");
+    
+    @Autowired
+    private ImportBatchWriter importBatchWriter;
+    
+    @Value("${excel.import.batch-size:500}")
+    private int batchSize;
+    
+    @Autowired
+    private ImportLedgerRepository importLedgerRepository;
+    
+    @Autowired
+    private XlsxStreamingReader xlsxStreamingReader;
+    
+    @Autowired
+    private UploadIngestionService uploadIngestionService;
+    
+    @Autowired
+    private ThreadPoolExecutor excelMappingExecutor;
+    
+    @Autowired
+    private ThreadPoolExecutor excelPersistExecutor;
+    
+    @Value("${excel.import.pipeline-block-size:256}")
+    private int pipelineBlockSize;
+    
+    @Value("${excel.import.pipeline-queue-blocks:8}")
+    private int pipelineQueueBlocks;
+    
+    @Value("${excel.import.diagnostics-examples:5}")
+    private int diagnosticsExamples;
+    
+    // Kaydetme aşamasına okumanın bittiğini bildirir
+    private static final Future<MappedBlock> END_OF_ROWS = CompletableFuture.completedFuture(null);
+    
+    private static final int MAX_CACHED_LAYOUTS = 32;
+    
+    // Başlık parmak izi -> derlenmiş satır eşleyici (aynı şablondaki dosyalar başlığı tekrar çözmez)
+    private final Map<String, ImportRowMapper> rowMappers = new ConcurrentHashMap<>();
+    
+    // Dosyayı okur, satırları batchSize'lık parçalar halinde kaydeder ve başarılı olursa arşive taşır.
+    // Okuma -> eşleme/doğrulama -> sipariş bazında toplama -> kaydetme aşamaları RowPipeline ile eş zamanlı çalışır.
+    // İlerleme ve iptal isteği job üzerinden izlenir.
+    public Map<String, Object> importFile(ImportJob job) throws IOException {
+        ImportProgress progress = new ImportProgress(job);
+        RowPipeline pipeline = new RowPipeline(job, progress);
+
+        try {
+            if (job.isStreaming()) {
+                xlsxStreamingReader.read(job.getFile(), pipeline, lastRow -> job.setRowsTotal(lastRow));
+            } else {
+                try (InputStream inputStream = Files.newInputStream(job.getFile())) {
+                    Workbook workbook = new XSSFWorkbook(inputStream);
+                    Sheet sheet = workbook.getSheetAt(0);
+                    job.setRowsTotal(sheet.getLastRowNum());
+
+                    for (int i = 0; i <= sheet.getLastRowNum(); i++) {
+                        Row row = sheet.getRow(i);
+                        if (row == null) continue;
+                        if (!pipeline.handleRow(i, getRowValues(row, pipeline))) break;
+                    }
+
+                    workbook.close();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            pipeline.abort();
+            throw e;
+        }
+        pipeline.finish();
+        checkCancelled(job);
+        
+        // Dosyayı arşive taşı (içerik adresli: aynı içerik tek kopya)
+        Path archivePath = uploadIngestionService.archive(job.getFile(), job.getContentHash());
+        
+        int newOrderCount = progress.createdOrderNumbers.size();
+        int updatedOrderCount = (int) progress.touchedOrderNumbers.stream()
+                .filter(orderNumber -> !progress.createdOrderNumbers.contains(orderNumber))
+                .count();
+        
+        // Detaylı mesaj oluştur
+        StringBuilder message = new StringBuilder();
+        message.append(progress.seenOrderNumbers.size()).append(" sipariş işlendi");
+        if (newOrderCount > 0) {
+            message.append(" (").append(newOrderCount).append(" yeni");
+        }
+        if (updatedOrderCount > 0) {
+            if (newOrderCount > 0) {
+                message.append(", ");
+            } else {
+                message.append(" (");
+            }
+            message.append(updatedOrderCount).append(" güncellendi");
+        }
+        if (newOrderCount > 0 || updatedOrderCount > 0) {
+            message.append(")");
+        }
+        if (progress.duplicateRows > 0) {
+            message.append(", ").append(progress.duplicateRows).append(" satır zaten kayıtlıydı");
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("importedCount", job.getRowsPersisted().get());
+        response.put("orderCount", progress.seenOrderNumbers.size());
+        response.put("newOrderCount", newOrderCount);
+        response.put("updatedOrderCount", updatedOrderCount);
+        response.put("duplicateRowCount", progress.duplicateRows);
+        response.put("errorCount", job.getRowsFailed().get());
+        response.put("message", message.toString());
+        response.put("warningCount", progress.diagnostics.getTotalCount());
+        response.put("diagnostics", progress.diagnostics.toReport());
+        response.put("diagnosticsSummary", progress.diagnostics.toSummary());
+        
+        recordImport(job, archivePath, response);
+        return response;
+    }
+    
+    private void recordImport(ImportJob job, Path archivePath, Map<String, Object> response) {
+        try {
+            ImportLedger ledger = importLedgerRepository.findByContentHash(job.getContentHash())
+                    .orElseGet(ImportLedger::new);
+            ledger.setContentHash(job.getContentHash());
+            ledger.setOriginalFilename(job.getFileName());
+            ledger.setArchivePath(archivePath.toString());
+            ledger.setFileSize(job.getFileSize());
+            ledger.setImportedCount(((Number) response.get("importedCount")).longValue());
+            ledger.setOrderCount((Integer) response.get("orderCount"));
+            ledger.setNewOrderCount((Integer) response.get("newOrderCount"));
+            ledger.setUpdatedOrderCount((Integer) response.get("updatedOrderCount"));
+            ledger.setErrorCount(((Number) response.get("errorCount")).longValue());
+            ledger.setMessage((String) response.get("message"));
+            ledger.setDiagnostics((String) response.get("diagnosticsSummary"));
+            ledger.setCreatedAt(LocalDateTime.now());
+            importLedgerRepository.save(ledger);
+        } catch (DataIntegrityViolationException e) {
+            // Aynı içerik eşzamanlı olarak başka bir işte kaydedildi
+            log.info("Import kaydı zaten mevcut: {}", job.getContentHash());
+        }
+    }
+    
+    // Okunan satırları biriktirip batchSize'a ulaşınca ImportBatchWriter'a verir
+    private class ImportProgress {
+        private final ImportJob job;
+        private final List<OrderImportData> chunk = new ArrayList<>(batchSize);
+        private final Set<String> seenOrderNumbers = new HashSet<>();
+        private final Set<String> createdOrderNumbers = new HashSet<>();
+        private final Set<String> touchedOrderNumbers = new HashSet<>();
+        private final ImportDiagnostics diagnostics = new ImportDiagnostics(diagnosticsExamples);
+        private int duplicateRows;
+        
+        ImportProgress(ImportJob job) {
+            this.job = job;
+        }
+        
+        void add(OrderImportData data) {
+            seenOrderNumbers.add(data.getOrderNumber());
+            chunk.add(data);
+            if (chunk.size() >= batchSize) {
+                flush();
+            }
+        }
+        
+        void rowFailed() {
+            job.getRowsFailed().incrementAndGet();
+        }
+        
+        void flush() {
+            if (chunk.isEmpty()) return;
+            checkCancelled(job);
+            try {
+                ImportBatchWriter.ChunkResult result = importBatchWriter.write(chunk);
+                createdOrderNumbers.addAll(result.getCreatedOrderNumbers());
+                touchedOrderNumbers.addAll(result.getTouchedOrderNumbers());
+                job.getRowsPersisted().addAndGet(result.getPersistedRows());
+                duplicateRows += result.getDuplicateRows();
+            } catch (Exception e) {
+                // Parça geri alındı; satırları hatalı say ve devam et
+                log.error("{} satırlık parça kaydedilirken hata", chunk.size(), e);
+                diagnostics.record(ImportDiagnostics.Category.CHUNK_ERROR, chunk.size() + " satır: " + e.getMessage());
+                job.getRowsFailed().addAndGet(chunk.size());
+            }
+            chunk.clear();
+        }
+    }
+    
+    private static class MappedBlock {
+        private final List<OrderImportData> rows = new ArrayList<>();
+        private int failedRows;
+    }
+    
+    // Okuyan thread ham satırları blok halinde eşleme havuzuna verir; Future'lar dosya sırasıyla sınırlı kuyruğa girer.
+    // Kaydetme thread'i Future'ları aynı sırayla alır, siparişleri parçalarda toplar ve yazar.
+    // Kuyruk doluysa okuma bekler, böylece bellekte en fazla pipelineQueueBlocks blok bulunur.
+    private class RowPipeline implements XlsxStreamingReader.RowHandler {
+        private final ImportJob job;
+        private final ImportProgress progress;
+        private final BlockingQueue<Future<MappedBlock>> mappedBlocks;
+        private final Future<?> persister;
+        private List<RawRow> block;
+        private volatile boolean persistFailed;
+        private volatile ImportRowMapper rowMapper;
+        
+        RowPipeline(ImportJob job, ImportProgress progress) {
+            this.job = job;
+            this.progress = progress;
+            this.mappedBlocks = new ArrayBlockingQueue<>(pipelineQueueBlocks);
+            this.block = new ArrayList<>(pipelineBlockSize);
+            this.persister = excelPersistExecutor.submit(this::persistBlocks);
+        }
+        
+        // Okuma aşaması: ilk satır başlıktır ve sütun düzenini belirler.
+        // false dönerse iş iptal edilmiş ya da kaydetme aşaması durmuştur, okumaya devam etmenin anlamı yok.
+        @Override
+        public boolean handleRow(int rowIndex, String[] cells) {
+            if (job.isCancelRequested() || persistFailed) return false;
+            if (rowIndex == 0) {
+                rowMapper = rowMapperFor(cells, progress.diagnostics);
+                return true;
+            }
+            if (rowMapper == null) {
+                // Başlık satırı yok: bilinen şablondaki konumlar
+                rowMapper = rowMapperFor(new String[0], progress.diagnostics);
+            }
+            block.add(new RawRow(rowIndex, cells));
+            if (block.size() >= pipelineBlockSize) {
+                submitBlock();
+            }
+            return true;
+        }
+        
+        // Kalan satırları gönderir ve kaydetme aşamasının bitmesini bekler
+        void finish() {
+            try {
+                if (!persistFailed) {
+                    if (!block.isEmpty()) {
+                        submitBlock();
+                    }
+                    mappedBlocks.put(END_OF_ROWS);
+                }
+                persister.get();
+            } catch (InterruptedException e) {
+                abort();
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Import iptal edildi");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        
+        // Başlık okunduktan sonra yalnızca eşleyicinin kullandığı sütunlar çözülür
+        @Override
+        public boolean wantsColumn(int column) {
+            ImportRowMapper mapper = rowMapper;
+            return mapper == null || mapper.isUsed(column);
+        }
+        
+        void abort() {
+            persister.cancel(true);
+        }
+        
+        private void submitBlock() {
+            List<RawRow> rows = block;
+            block = new ArrayList<>(pipelineBlockSize);
+            ImportRowMapper mapper = rowMapper;
+            Future<MappedBlock> mapped = excelMappingExecutor.submit(() -> mapBlock(mapper, rows));
+            try {
+                mappedBlocks.put(mapped);
+            } catch (InterruptedException e) {
+                abort();
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Import iptal edildi");
+            }
+        }
+        
+        // Eşleme aşaması (havuz thread'leri): satırlar birbirinden bağımsız
+        private MappedBlock mapBlock(ImportRowMapper mapper, List<RawRow> rows) {
+            MappedBlock mapped = new MappedBlock();
+            for (RawRow row : rows) {
+                try {
+                    OrderImportData data = mapper.map(row.cells);
+                    checkRow(row.index, data, progress.diagnostics);
+                    if (!hasStockCode(data)) {
+                        mapped.failedRows++;
+                        continue;
+                    }
+                    job.getRowsParsed().incrementAndGet();
+                    mapped.rows.add(data);
+                } catch (Exception e) {
+                    rowLog.trace("Satır {} işlenirken hata", row.index + 1, e);
+                    progress.diagnostics.recordRow(ImportDiagnostics.Category.ROW_ERROR, row.index, String.valueOf(e.getMessage()));
+                    mapped.failedRows++;
+                }
+            }
+            return mapped;
+        }
+        
+        // Toplama ve kaydetme aşaması (tek thread): yeni siparişin başlık alanları dosyadaki ilk satırından gelir
+        private Void persistBlocks() throws Exception {
+            try {
+                while (true) {
+                    Future<MappedBlock> next = mappedBlocks.take();
+                    if (next == END_OF_ROWS) break;
+                    MappedBlock mapped = next.get();
+                    for (OrderImportData data : mapped.rows) {
+                        progress.add(data);
+                    }
+                    for (int i = 0; i < mapped.failedRows; i++) {
+                        progress.rowFailed();
+                    }
+                }
+                progress.flush();
+                return null;
+            } catch (Exception e) {
+                // Okuyan thread'in kuyrukta beklemesini önle
+                persistFailed = true;
+                mappedBlocks.clear();
+                throw e;
+            }
+        }
+    }
+    
+    private static class RawRow {
+        private final int index;
+        private final String[] cells;
+        
+        RawRow(int index, String[] cells) {
+            this.index = index;
+            this.cells = cells;
+        }
+    }
+    
+    // Stok kodu olmayan satır için ürün oluşturulamaz (uyarı extractRowData'da kaydedilir)
+    private boolean hasStockCode(OrderImportData data) {
+        return !isBlank(data.getProductCode());
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+    
+    private void checkCancelled(ImportJob job) {
+        if (job.isCancelRequested()) {
+            throw new CancellationException("Import iptal edildi");
+        }
+    }
+
+    // Aynı başlık düzeni için eşleyici bir kez derlenir; önbellek sınırı aşılırsa temizlenir
+    private ImportRowMapper rowMapperFor(String[] headerRow, ImportDiagnostics diagnostics) {
+        String fingerprint = ImportColumnLayout.fingerprint(headerRow);
+        ImportRowMapper mapper = rowMappers.get(fingerprint);
+        if (mapper == null) {
+            if (rowMappers.size() >= MAX_CACHED_LAYOUTS) {
+                rowMappers.clear();
+            }
+            mapper = rowMappers.computeIfAbsent(fingerprint,
+                    key -> ImportRowMapper.compile(ImportColumnLayout.detect(headerRow)));
+        }
+        for (ImportColumn column : mapper.getFallbackColumns()) {
+            int index = mapper.indexOf(column);
+            diagnostics.record(ImportDiagnostics.Category.MISSING_COLUMN, "'" + column.getDisplayName() + "' başlığı yok, "
+                    + (index >= 0 ? (index + 1) + ". sütun kullanıldı" : "alan boş bırakıldı"));
+        }
+        return mapper;
+    }
+    
+    private void checkRow(int rowIndex, OrderImportData data, ImportDiagnostics diagnostics) {
+        if (rowLog.isTraceEnabled()) {
+            rowLog.trace("Satır {}: sipariş='{}', alıcı='{}', stok kodu='{}', kargo kodu='{}', barkod='{}'",
+                    rowIndex + 1, data.getOrderNumber(), data.getCustomerName(), data.getProductCode(),
+                    data.getCargoCampaignCode(), data.getBarcode());
+        }
+
+        // Boş değer kontrolü
+        if (isBlank(data.getOrderNumber())) {
+            diagnostics.recordRow(ImportDiagnostics.Category.EMPTY_ORDER_NUMBER, rowIndex, "alıcı '" + data.getCustomerName() + "'");
+        }
+        if (isBlank(data.getBarcode())) {
+            diagnostics.recordRow(ImportDiagnostics.Category.EMPTY_BARCODE, rowIndex, "sipariş '" + data.getOrderNumber() + "'");
+        }
+        if (isBlank(data.getCustomerName())) {
+            diagnostics.recordRow(ImportDiagnostics.Category.EMPTY_CUSTOMER_NAME, rowIndex, "sipariş '" + data.getOrderNumber() + "'");
+        }
+        if (isBlank(data.getProductCode())) {
+            diagnostics.recordRow(ImportDiagnostics.Category.EMPTY_STOCK_CODE, rowIndex, "sipariş '" + data.getOrderNumber() + "'");
+        }
+    }
+
+    // Yalnızca handler'ın istediği sütunlar dönüştürülür (başlık satırında hepsi)
+    private String[] getRowValues(Row row, XlsxStreamingReader.RowHandler handler) {
+        String[] cells = new String[Math.max(row.getLastCellNum(), 0)];
+        for (int j = 0; j < cells.length; j++) {
+            cells[j] = handler.wantsColumn(j) ? getCellValueAsString(row.getCell(j)) : "";
+        }
+        return cells;
+    }
+    
+    public String getCellValueAsString(Cell cell) {
+        if (cell == null) return "";
+        switch (cell.getCellType()) {
+            case STRING:
+                return cell.getStringCellValue();
+            case NUMERIC:
+                if (DateUtil.isCellDateFormatted(cell)) {
+                    return cell.getDateCellValue().toString();
+                } else {
+                    return String.valueOf(cell.getNumericCellValue());
+                }
+            default:
+                // BLANK, FORMULA, BOOLEAN, ERROR
+                return "";
+        }
+    }
+}
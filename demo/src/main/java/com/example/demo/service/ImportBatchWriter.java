@@ -0,0 +1,296 @@
+package com.example.demo.service;
+
+import com.example.demo.model.OrderImportData;
+import com.example.demo.model.OrderStatus;
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Import edilen satırları parça (chunk) halinde, set tabanlı sorgularla kaydeder:
+// mevcut ürün/siparişler tek IN (...) sorgusuyla çözülür, yeniler JDBC batch insert ile yazılır.
+// Her parça tek bir transaction'dır; hata olursa sadece o parça geri alınır.
+@Service
+public class ImportBatchWriter {
+
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO products (name, barcode, stock_code, description, stock, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ORDER =
+            "INSERT INTO orders (order_number, customer_name, address, delivery_address, phone, email, "
+            + "cargo_campaign_code, barcode, stock_code, brand, total_items, total_amount, status, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0.0, ?, ?, ?)";
+
+    // Satır anahtarı (order_id, line_key) zaten varsa kalem yerinde güncellenir, yoksa eklenir; created_at korunur
+    private static final String MERGE_ORDER_ITEM =
+            "MERGE INTO order_items t USING (SELECT "
+            + "CAST(? AS BIGINT) AS order_id, CAST(? AS BIGINT) AS line_key, CAST(? AS BIGINT) AS product_id, "
+            + "CAST(? AS INTEGER) AS quantity, CAST(? AS DOUBLE PRECISION) AS unit_price, "
+            + "CAST(? AS DOUBLE PRECISION) AS total_price, CAST(? AS VARCHAR) AS stock_code, "
+            + "CAST(? AS TIMESTAMP) AS created_at) s "
+            + "ON t.order_id = s.order_id AND t.line_key = s.line_key "
+            + "WHEN MATCHED THEN UPDATE SET product_id = s.product_id, quantity = s.quantity, "
+            + "unit_price = s.unit_price, total_price = s.total_price, stock_code = s.stock_code "
+            + "WHEN NOT MATCHED THEN INSERT (order_id, line_key, product_id, quantity, unit_price, total_price, stock_code, created_at) "
+            + "VALUES (s.order_id, s.line_key, s.product_id, s.quantity, s.unit_price, s.total_price, s.stock_code, s.created_at)";
+
+    private static final String SELECT_LINE_KEYS =
+            "SELECT order_id, line_key FROM order_items WHERE order_id IN (:ids) AND line_key IS NOT NULL";
+
+    // Satır anahtarı eklenmeden önce import edilmiş kalemler (paket no bilinmediğinden anahtar sonradan hesaplanamaz)
+    private static final String SELECT_LEGACY_LINES =
+            "SELECT id, order_id, product_id, stock_code FROM order_items "
+            + "WHERE order_id IN (:ids) AND line_key IS NULL ORDER BY id";
+
+    private static final String SET_LINE_KEY = "UPDATE order_items SET line_key = ? WHERE id = ?";
+
+    // Toplamlar sipariş kalemlerinden yeniden hesaplanır; böylece aynı sipariş birden fazla parçaya bölünse de doğru kalır
+    private static final String UPDATE_ORDER_TOTALS =
+            "UPDATE orders o SET "
+            + "total_items = (SELECT COUNT(*) FROM order_items i WHERE i.order_id = o.id), "
+            + "total_amount = (SELECT COALESCE(SUM(i.unit_price * i.quantity), 0) FROM order_items i WHERE i.order_id = o.id) "
+            + "WHERE o.id IN (:ids)";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ImportBatchWriter(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public static class ChunkResult {
+        private final Set<String> createdOrderNumbers;
+        private final Set<String> touchedOrderNumbers;
+        private final int persistedRows;
+        private final int duplicateRows;
+
+        ChunkResult(Set<String> createdOrderNumbers, Set<String> touchedOrderNumbers, int persistedRows, int duplicateRows) {
+            this.createdOrderNumbers = createdOrderNumbers;
+            this.touchedOrderNumbers = touchedOrderNumbers;
+            this.persistedRows = persistedRows;
+            this.duplicateRows = duplicateRows;
+        }
+
+        public Set<String> getCreatedOrderNumbers() {
+            return createdOrderNumbers;
+        }
+
+        public Set<String> getTouchedOrderNumbers() {
+            return touchedOrderNumbers;
+        }
+
+        public int getPersistedRows() {
+            return persistedRows;
+        }
+
+        // Zaten kayıtlı olup yerinde güncellenen satırlar
+        public int getDuplicateRows() {
+            return duplicateRows;
+        }
+    }
+
+    // rows dosyadaki sırayla gelir; yeni siparişin başlık alanları ilk satırından alınır
+    public ChunkResult write(List<OrderImportData> rows) {
+        return transactionTemplate.execute(status -> writeChunk(rows));
+    }
+
+    private ChunkResult writeChunk(List<OrderImportData> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        // 1) Ürünler: barkoda göre tekilleştir, mevcutları tek sorguda bul, eksikleri batch insert et
+        Map<String, OrderImportData> firstRowByBarcode = new LinkedHashMap<>();
+        for (OrderImportData row : rows) {
+            firstRowByBarcode.putIfAbsent(row.getBarcode(), row);
+        }
+        Map<String, Long> productIds = findProductIds(firstRowByBarcode.keySet());
+        List<OrderImportData> newProducts = new ArrayList<>();
+        for (Map.Entry<String, OrderImportData> entry : firstRowByBarcode.entrySet()) {
+            if (!productIds.containsKey(entry.getKey())) {
+                newProducts.add(entry.getValue());
+            }
+        }
+        if (!newProducts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT, newProducts, newProducts.size(), (ps, data) -> {
+                ps.setString(1, data.getProductName()); // 12. sütun - Ürün Adı
+                ps.setString(2, data.getBarcode()); // 0. sütun - Barkod
+                ps.setString(3, data.getProductCode()); // 19. sütun - Stok Kodu
+                ps.setString(4, "Excel'den import edildi");
+                ps.setInt(5, 1); // Varsayılan stok miktarı
+                ps.setTimestamp(6, now);
+                ps.setTimestamp(7, now);
+            });
+            List<String> insertedBarcodes = newProducts.stream().map(OrderImportData::getBarcode).toList();
+            productIds.putAll(findProductIds(insertedBarcodes));
+        }
+
+        // 2) Siparişler: sipariş numarasına göre tekilleştir, mevcutları tek sorguda bul, yenileri batch insert et
+        Map<String, OrderImportData> firstRowByOrder = new LinkedHashMap<>();
+        for (OrderImportData row : rows) {
+            firstRowByOrder.putIfAbsent(row.getOrderNumber(), row);
+        }
+        Map<String, Long> orderIds = findOrderIds(firstRowByOrder.keySet());
+        List<OrderImportData> newOrders = new ArrayList<>();
+        for (Map.Entry<String, OrderImportData> entry : firstRowByOrder.entrySet()) {
+            if (!orderIds.containsKey(entry.getKey())) {
+                newOrders.add(entry.getValue());
+            }
+        }
+        Set<String> createdOrderNumbers = new HashSet<>();
+        if (!newOrders.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ORDER, newOrders, newOrders.size(), (ps, data) -> {
+                ps.setString(1, data.getOrderNumber());
+                ps.setString(2, data.getCustomerName());
+                ps.setString(3, data.getAddress()); // Teslimat Adresi
+                ps.setString(4, data.getAddress()); // Teslimat Adresi (ayrı alan)
+                ps.setString(5, data.getPhone());
+                ps.setString(6, data.getEmail());
+                ps.setString(7, data.getCargoCampaignCode());
+                ps.setString(8, data.getBarcode()); // İlk barkodu kaydet
+                ps.setString(9, data.getProductCode()); // İlk stok kodunu kaydet
+                ps.setString(10, data.getBrand()); // Marka
+                ps.setString(11, OrderStatus.PENDING.name());
+                ps.setTimestamp(12, now);
+                ps.setTimestamp(13, now);
+            });
+            List<String> insertedOrderNumbers = newOrders.stream().map(OrderImportData::getOrderNumber).toList();
+            orderIds.putAll(findOrderIds(insertedOrderNumbers));
+            createdOrderNumbers.addAll(insertedOrderNumbers);
+        }
+
+        // 3) Daha önce kaydedilmiş satırları say (yalnızca mevcut siparişlerde olabilir)
+        Set<String> knownLines = new HashSet<>();
+        List<Long> existingOrderIds = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : orderIds.entrySet()) {
+            if (!createdOrderNumbers.contains(entry.getKey())) {
+                existingOrderIds.add(entry.getValue());
+            }
+        }
+        if (!existingOrderIds.isEmpty()) {
+            namedParameterJdbcTemplate.query(SELECT_LINE_KEYS, new MapSqlParameterSource("ids", existingOrderIds),
+                    rs -> {
+                        knownLines.add(rs.getLong(1) + ":" + rs.getLong(2));
+                    });
+        }
+        if (!existingOrderIds.isEmpty()) {
+            adoptLegacyLines(rows, existingOrderIds, orderIds, productIds, knownLines);
+        }
+        int duplicateRows = 0;
+        for (OrderImportData row : rows) {
+            if (!knownLines.add(orderIds.get(row.getOrderNumber()) + ":" + lineKey(row))) {
+                duplicateRows++;
+            }
+        }
+
+        // 4) Sipariş kalemleri tek batch MERGE ile (mevcut siparişlerin updatedAt'i değişmez)
+        jdbcTemplate.batchUpdate(MERGE_ORDER_ITEM, rows, rows.size(), (ps, data) -> {
+            ps.setLong(1, orderIds.get(data.getOrderNumber()));
+            ps.setLong(2, lineKey(data));
+            ps.setLong(3, productIds.get(data.getBarcode()));
+            ps.setInt(4, data.getQuantity());
+            ps.setDouble(5, data.getPrice());
+            ps.setDouble(6, data.getQuantity() * data.getPrice());
+            ps.setString(7, data.getProductCode()); // Stok kodunu kaydet
+            ps.setTimestamp(8, now);
+        });
+
+        // 5) Etkilenen siparişlerin toplamları tek UPDATE ile
+        namedParameterJdbcTemplate.update(UPDATE_ORDER_TOTALS,
+                new MapSqlParameterSource("ids", new ArrayList<>(orderIds.values())));
+
+        // Dinleyiciler parça commit edildikten sonra çalışır
+        eventPublisher.publishEvent(new OrdersChangedEvent("import"));
+
+        return new ChunkResult(createdOrderNumbers, new HashSet<>(firstRowByOrder.keySet()), rows.size(), duplicateRows);
+    }
+
+    // Anahtarsız eski kalemler (sipariş, ürün, stok kodu) eşleşen satırla birebir eşlenir ve satırın anahtarını alır;
+    // böylece MERGE onları günceller, ilk yeniden import kalemleri ikinci kez eklemez
+    private void adoptLegacyLines(List<OrderImportData> rows, List<Long> existingOrderIds, Map<String, Long> orderIds,
+                                  Map<String, Long> productIds, Set<String> knownLines) {
+        Map<String, Deque<Long>> legacyLines = new HashMap<>();
+        namedParameterJdbcTemplate.query(SELECT_LEGACY_LINES, new MapSqlParameterSource("ids", existingOrderIds),
+                rs -> {
+                    legacyLines.computeIfAbsent(legacyKey(rs.getLong(2), rs.getLong(3), rs.getString(4)),
+                            k -> new ArrayDeque<>()).add(rs.getLong(1));
+                });
+        if (legacyLines.isEmpty()) {
+            return;
+        }
+        List<Object[]> keyed = new ArrayList<>();
+        for (OrderImportData row : rows) {
+            Long orderId = orderIds.get(row.getOrderNumber());
+            long key = lineKey(row);
+            if (knownLines.contains(orderId + ":" + key)) {
+                continue;
+            }
+            Deque<Long> candidates = legacyLines.get(legacyKey(orderId, productIds.get(row.getBarcode()), row.getProductCode()));
+            if (candidates != null && !candidates.isEmpty()) {
+                keyed.add(new Object[] {key, candidates.poll()});
+                knownLines.add(orderId + ":" + key);
+            }
+        }
+        if (!keyed.isEmpty()) {
+            jdbcTemplate.batchUpdate(SET_LINE_KEY, keyed);
+        }
+    }
+
+    private static String legacyKey(Long orderId, Long productId, String stockCode) {
+        return orderId + ":" + productId + ":" + stockCode;
+    }
+
+    // Doğal anahtarın (sipariş no + barkod + stok kodu + paket no) 64-bit FNV-1a özeti
+    static long lineKey(OrderImportData data) {
+        long hash = 0xcbf29ce484222325L;
+        for (String part : new String[] {data.getOrderNumber(), data.getBarcode(), data.getProductCode(), data.getPackageNo()}) {
+            String value = part != null ? part.trim() : "";
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= 0x1f; // Alan ayırıcı
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private Map<String, Long> findProductIds(Collection<String> barcodes) {
+        Map<String, Long> ids = new HashMap<>();
+        for (ProductRepository.BarcodeId product : productRepository.findByBarcodeIn(barcodes)) {
+            ids.put(product.getBarcode(), product.getId());
+        }
+        return ids;
+    }
+
+    private Map<String, Long> findOrderIds(Collection<String> orderNumbers) {
+        Map<String, Long> ids = new HashMap<>();
+        for (OrderRepository.OrderNumberId order : orderRepository.findByOrderNumberIn(orderNumbers)) {
+            ids.put(order.getOrderNumber(), order.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ImportColumn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Başlık satırından alan -> sütun indeksi eşlemesini çıkarır.
+// Başlıklar büyük/küçük harf ve fazla boşluk farkı gözetmeden karşılaştırılır; aynı başlık iki kez varsa ilki alınır.
+public class ImportColumnLayout {
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr");
+    private static final Map<String, ImportColumn> COLUMNS_BY_HEADER = new HashMap<>();
+
+    static {
+        for (ImportColumn column : ImportColumn.values()) {
+            for (String header : column.getHeaders()) {
+                COLUMNS_BY_HEADER.put(normalize(header), column);
+            }
+        }
+    }
+
+    private final String[] headers;
+    private final Map<ImportColumn, Integer> columns;
+
+    private ImportColumnLayout(String[] headers, Map<ImportColumn, Integer> columns) {
+        this.headers = headers;
+        this.columns = columns;
+    }
+
+    public static ImportColumnLayout detect(String[] headerRow) {
+        Map<ImportColumn, Integer> columns = new EnumMap<>(ImportColumn.class);
+        for (int i = 0; i < headerRow.length; i++) {
+            if (headerRow[i] == null) continue;
+            ImportColumn column = COLUMNS_BY_HEADER.get(normalize(headerRow[i]));
+            if (column != null) {
+                columns.putIfAbsent(column, i);
+            }
+        }
+        return new ImportColumnLayout(headerRow.clone(), columns);
+    }
+
+    // Aynı başlık düzenine sahip dosyalar aynı parmak izini üretir (derlenmiş eşleyici önbelleğinin anahtarı)
+    public static String fingerprint(String[] headerRow) {
+        StringBuilder fingerprint = new StringBuilder();
+        for (String header : headerRow) {
+            fingerprint.append(header != null ? normalize(header) : "").append('\u001f');
+        }
+        return fingerprint.toString();
+    }
+
+    static String normalize(String header) {
+        return header.trim().replaceAll("\\s+", " ").toLowerCase(TURKISH);
+    }
+
+    // Bulunamayan alan için -1
+    public int indexOf(ImportColumn column) {
+        return columns.getOrDefault(column, -1);
+    }
+
+    public List<ImportColumn> getMissingColumns() {
+        List<ImportColumn> missing = new ArrayList<>();
+        for (ImportColumn column : ImportColumn.values()) {
+            if (!columns.containsKey(column)) {
+                missing.add(column);
+            }
+        }
+        return missing;
+    }
+
+    // Zorunlu alanların hepsi bulunduysa true
+    public boolean isComplete() {
+        for (ImportColumn column : ImportColumn.values()) {
+            if (column.isRequired() && !columns.containsKey(column)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public List<String> getHeaders() {
+        return Collections.unmodifiableList(Arrays.asList(headers));
+    }
+
+    // {"ORDER_NUMBER": {"column": 7, "header": "Sipariş Numarası"}, ...}
+    public Map<String, Object> toMap() {
+        Map<String, Object> mapping = new LinkedHashMap<>();
+        for (Map.Entry<ImportColumn, Integer> entry : columns.entrySet()) {
+            Map<String, Object> field = new LinkedHashMap<>();
+            field.put("column", entry.getValue());
+            field.put("header", headers[entry.getValue()]);
+            mapping.put(entry.getKey().name(), field);
+        }
+        return mapping;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Import sırasında görülen uyarıları kategori bazında sayar; her kategoriden yalnızca ilk birkaç örnek saklanır.
+// Eşleme aşaması paralel çalıştığı için thread-safe'dir.
+public class ImportDiagnostics {
+
+    public enum Category {
+        MISSING_COLUMN("Başlık bulunamadı"),
+        EMPTY_ORDER_NUMBER("Sipariş numarası boş"),
+        EMPTY_BARCODE("Barkod boş"),
+        EMPTY_STOCK_CODE("Stok kodu boş"),
+        EMPTY_CUSTOMER_NAME("Alıcı adı boş"),
+        ROW_ERROR("Satır okunamadı"),
+        CHUNK_ERROR("Parça kaydedilemedi");
+
+        private final String displayName;
+
+        Category(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final int maxExamples;
+    private final Map<Category, AtomicInteger> counts = new EnumMap<>(Category.class);
+    private final Map<Category, List<String>> examples = new EnumMap<>(Category.class);
+
+    public ImportDiagnostics(int maxExamples) {
+        this.maxExamples = maxExamples;
+        // Haritalar burada doldurulur, sonra yapısı değişmez; eşzamanlı okuma güvenlidir
+        for (Category category : Category.values()) {
+            counts.put(category, new AtomicInteger());
+            examples.put(category, Collections.synchronizedList(new ArrayList<>()));
+        }
+    }
+
+    // rowIndex 0 tabanlıdır; örneklerde Excel'deki satır numarası gösterilir
+    public void recordRow(Category category, int rowIndex, String detail) {
+        record(category, "Satır " + (rowIndex + 1) + ": " + detail);
+    }
+
+    public void record(Category category, String example) {
+        if (counts.get(category).incrementAndGet() <= maxExamples) {
+            examples.get(category).add(example);
+        }
+    }
+
+    public int getCount(Category category) {
+        return counts.get(category).get();
+    }
+
+    public int getTotalCount() {
+        int total = 0;
+        for (AtomicInteger count : counts.values()) {
+            total += count.get();
+        }
+        return total;
+    }
+
+    // Yalnızca uyarı görülen kategoriler: {"EMPTY_BARCODE": {"label", "count", "examples"}}
+    public Map<String, Object> toReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        for (Category category : Category.values()) {
+            int count = getCount(category);
+            if (count == 0) continue;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("label", category.getDisplayName());
+            entry.put("count", count);
+            synchronized (examples.get(category)) {
+                entry.put("examples", new ArrayList<>(examples.get(category)));
+            }
+            report.put(category.name(), entry);
+        }
+        return report;
+    }
+
+    // Import kaydında saklanan kısa özet, ör. "Barkod boş: 3, Stok kodu boş: 1"
+    public String toSummary() {
+        StringJoiner summary = new StringJoiner(", ");
+        for (Category category : Category.values()) {
+            int count = getCount(category);
+            if (count > 0) {
+                summary.add(category.getDisplayName() + ": " + count);
+            }
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ImportJob;
+import com.example.demo.model.ImportJobStatus;
+import com.example.demo.model.ImportLedger;
+import com.example.demo.repository.ImportLedgerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Service
+public class ImportJobService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ImportJobService.class);
+    
+    @Autowired
+    private ExcelImportService excelImportService;
+    
+    @Autowired
+    private ImportLedgerRepository importLedgerRepository;
+    
+    @Autowired
+    private ThreadPoolExecutor excelImportExecutor;
+    
+    @Autowired
+    private UploadIngestionService uploadIngestionService;
+    
+    @Value("${excel.import.streaming-threshold-bytes:1048576}")
+    private long streamingThresholdBytes;
+    
+    @Value("${excel.import.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+    
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    
+    // İçerik özeti -> sırada/çalışan iş; aynı dosyanın iki isteği aynı anda kayıt olamaz
+    private final ConcurrentHashMap<String, ImportJob> activeJobs = new ConcurrentHashMap<>();
+    
+    // Yüklemeyi arşiv dizinindeki geçici dosyaya alır; istek bittiğinde MultipartFile silindiği için iş bu kopyadan çalışır
+    public ImportJob createJob(MultipartFile file, String mode) throws IOException {
+        // Büyük dosyalar varsayılan olarak SAX ile satır satır okunur
+        boolean streaming = mode != null
+                ? "stream".equalsIgnoreCase(mode)
+                : file.getSize() >= streamingThresholdBytes;
+        
+        // Yükleme arşiv dizinine tek geçişte yazılır, SHA-256 özeti aynı okumada hesaplanır
+        UploadIngestionService.IngestedFile ingested;
+        try (InputStream inputStream = file.getInputStream()) {
+            ingested = uploadIngestionService.ingest(inputStream);
+        }
+        return new ImportJob(file.getOriginalFilename(), ingested.getPath(), streaming,
+                ingested.getContentHash(), ingested.getSize());
+    }
+    
+    // Aynı içerik daha önce başarıyla içe aktarıldıysa önceki sonucu döner (unique index üzerinden tek sorgu)
+    public Optional<Map<String, Object>> findPreviousResult(ImportJob job) {
+        return importLedgerRepository.findByContentHash(job.getContentHash())
+                .map(ImportLedger::toResultMap);
+    }
+    
+    // Kullanılmayacak yüklemenin geçici dosyasını siler
+    public void discard(ImportJob job) {
+        uploadIngestionService.discard(job.getFile());
+    }
+    
+    // Aynı içerik için sırada/çalışan bir iş varsa yeni yükleme silinir ve o iş döner
+    public ImportJob submit(ImportJob job) {
+        evictFinishedJobs();
+        ImportJob activeJob = registerActive(job);
+        if (activeJob != job) {
+            uploadIngestionService.discard(job.getFile());
+            return activeJob;
+        }
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(excelImportExecutor.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            activeJobs.remove(job.getContentHash(), job);
+            uploadIngestionService.discard(job.getFile());
+            throw e;
+        }
+        return job;
+    }
+    
+    private ImportJob registerActive(ImportJob job) {
+        while (true) {
+            ImportJob existing = activeJobs.putIfAbsent(job.getContentHash(), job);
+            if (existing == null) {
+                return job;
+            }
+            if (!existing.getStatus().isFinished()) {
+                return existing;
+            }
+            // Bitmiş ama henüz kaydı silinmemiş iş: yerini alıp tekrar denenir
+            activeJobs.remove(job.getContentHash(), existing);
+        }
+    }
+    
+    // async=false: iş aynı şekilde kaydedilir ve havuzda çalışır (kuyruk doluysa RejectedExecutionException),
+    // isteği yapan thread yalnızca bitmesini bekler; aynı içerik zaten işleniyorsa o iş beklenir
+    public ImportJob runNow(ImportJob job) throws InterruptedException {
+        ImportJob submitted = submit(job);
+        try {
+            submitted.getFuture().get();
+        } catch (ExecutionException | CancellationException e) {
+            // run() hataları işin durumuna yazar; buraya yalnızca beklenmeyen durumlar düşer
+            log.warn("Import işi beklenirken hata: {}", submitted.getId(), e);
+        } catch (InterruptedException e) {
+            // İstek kesildi: kendi işi bir sonraki kayıtta durur, başka isteğin işine dokunulmaz
+            if (submitted == job) {
+                submitted.setCancelRequested(true);
+            }
+            throw e;
+        }
+        return submitted;
+    }
+    
+    public Optional<ImportJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+    
+    public Optional<ImportJob> cancel(String id) {
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            return Optional.empty();
+        }
+        // Çalışan iş bir sonraki satırda / kayıtta durur; sıradaki iş hiç başlamadan iptal edilir
+        job.setCancelRequested(true);
+        return Optional.of(job);
+    }
+    
+    private void run(ImportJob job) {
+        try {
+            if (job.isCancelRequested()) {
+                job.markFinished(ImportJobStatus.CANCELLED);
+                return;
+            }
+            job.markRunning();
+            job.setResult(excelImportService.importFile(job));
+            job.markFinished(ImportJobStatus.COMPLETED);
+        } catch (CancellationException e) {
+            // Bu noktaya kadar kaydedilen siparişler veritabanında kalır
+            job.setError(e.getMessage());
+            job.markFinished(ImportJobStatus.CANCELLED);
+        } catch (Exception e) {
+            log.error("Import işi başarısız: {}", job.getId(), e);
+            job.setError("Import sırasında hata: " + e.getMessage());
+            job.markFinished(ImportJobStatus.FAILED);
+        } finally {
+            activeJobs.remove(job.getContentHash(), job);
+            uploadIngestionService.discard(job.getFile());
+        }
+    }
+    
+    private void evictFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.getStatus().isFinished()
+                && job.getFinishedAt() != null
+                && job.getFinishedAt().isBefore(threshold));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ImportColumn;
+import com.example.demo.model.OrderImportData;
+
+import java.util.List;
+
+// Bir başlık düzeni için derlenmiş satır eşleyici. Alan -> sütun indeksleri bir kez çözülür;
+// satır başına yalnızca kullanılan sütunlara dokunulur ve istisna fırlatılmaz.
+public class ImportRowMapper {
+
+    private final ImportColumnLayout layout;
+    private final int[] indexes; // ImportColumn.ordinal() -> sütun indeksi (-1: yok)
+    private final boolean[] usedColumns;
+    private final List<ImportColumn> fallbackColumns;
+
+    private ImportRowMapper(ImportColumnLayout layout, int[] indexes, List<ImportColumn> fallbackColumns) {
+        this.layout = layout;
+        this.indexes = indexes;
+        this.fallbackColumns = fallbackColumns;
+        int width = 0;
+        for (int index : indexes) {
+            width = Math.max(width, index + 1);
+        }
+        this.usedColumns = new boolean[width];
+        for (int index : indexes) {
+            if (index >= 0) {
+                usedColumns[index] = true;
+            }
+        }
+    }
+
+    // Başlıkta bulunamayan alan için bilinen şablondaki konum kullanılır;
+    // o konum başka bir alanın başlığına aitse (sütunlar yer değiştirmişse) alan boş kalır.
+    public static ImportRowMapper compile(ImportColumnLayout layout) {
+        ImportColumn[] columns = ImportColumn.values();
+        int[] indexes = new int[columns.length];
+        boolean[] claimed = new boolean[Math.max(layout.getHeaders().size(), maxDefaultIndex() + 1)];
+        for (ImportColumn column : columns) {
+            indexes[column.ordinal()] = layout.indexOf(column);
+            if (indexes[column.ordinal()] >= 0) {
+                claimed[indexes[column.ordinal()]] = true;
+            }
+        }
+        List<ImportColumn> fallbackColumns = layout.getMissingColumns();
+        for (ImportColumn column : fallbackColumns) {
+            if (!claimed[column.getDefaultIndex()]) {
+                indexes[column.ordinal()] = column.getDefaultIndex();
+            }
+        }
+        return new ImportRowMapper(layout, indexes, fallbackColumns);
+    }
+
+    private static int maxDefaultIndex() {
+        int max = 0;
+        for (ImportColumn column : ImportColumn.values()) {
+            max = Math.max(max, column.getDefaultIndex());
+        }
+        return max;
+    }
+
+    public ImportColumnLayout getLayout() {
+        return layout;
+    }
+
+    // Başlıkta bulunamayan alanlar
+    public List<ImportColumn> getFallbackColumns() {
+        return fallbackColumns;
+    }
+
+    public int indexOf(ImportColumn column) {
+        return indexes[column.ordinal()];
+    }
+
+    public boolean isUsed(int column) {
+        return column < usedColumns.length && usedColumns[column];
+    }
+
+    public OrderImportData map(String[] cells) {
+        OrderImportData data = new OrderImportData();
+        data.setOrderNumber(value(cells, ImportColumn.ORDER_NUMBER));
+        data.setBarcode(value(cells, ImportColumn.BARCODE));
+        data.setProductCode(value(cells, ImportColumn.STOCK_CODE));
+        data.setProductName(value(cells, ImportColumn.PRODUCT_NAME));
+        data.setBrand(value(cells, ImportColumn.BRAND));
+        data.setCustomerName(value(cells, ImportColumn.CUSTOMER_NAME));
+        data.setCity(value(cells, ImportColumn.CITY));
+        data.setDistrict(value(cells, ImportColumn.DISTRICT));
+        data.setOrderDate(value(cells, ImportColumn.ORDER_DATE));
+        data.setPrice(0.0); // Fiyat bilgisi yok
+        data.setQuantity(1); // Adet bilgisi yok, varsayılan 1
+        data.setAddress(value(cells, ImportColumn.ADDRESS));
+        data.setPhone(""); // Telefon bilgisi yok
+        data.setEmail(value(cells, ImportColumn.EMAIL));
+        data.setCargoCampaignCode(value(cells, ImportColumn.CARGO_CODE));
+        data.setPackageNo(value(cells, ImportColumn.PACKAGE_NO)); // Satır anahtarının parçası
+        return data;
+    }
+
+    private String value(String[] cells, ImportColumn column) {
+        int index = indexes[column.ordinal()];
+        if (index < 0 || index >= cells.length) {
+            return "";
+        }
+        String value = cells[index];
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,418 @@
+package com.example.demo.service;
+
+import com.example.demo.model.LabelSheetRequest;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.util.BarcodePattern;
+import com.example.demo.util.PdfContent;
+import com.example.demo.util.PdfStreamWriter;
+import com.example.demo.util.ZplBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.demo.util.PdfStreamWriter.FONT_BOLD;
+import static com.example.demo.util.PdfStreamWriter.FONT_REGULAR;
+import static com.example.demo.util.PdfStreamWriter.mm;
+
+// Sunucu tarafında çok sayfalı etiket PDF'i ya da termal yazıcı için ZPL. Siparişler parça parça yüklenir,
+// her sayfa / parça hazır olunca yanıta yazılır; PDF barkodları Code128 modül deseninden vektör olarak çizilir.
+@Service
+public class LabelSheetService {
+
+    private static final Logger log = LoggerFactory.getLogger(LabelSheetService.class);
+
+    private static final DateTimeFormatter PRINT_DATE = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+    private static final double PADDING = mm(4);
+    private static final double LINE_GAP = 1.25;
+    private static final int QUIET_ZONE_MODULES = 10; // Code128 okuyucuları için her iki yanda
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private BarcodeService barcodeService;
+
+    @Value("${labels.fetch-chunk-size:100}")
+    private int fetchChunkSize;
+
+    public List<Long> resolveOrderIds(LabelSheetRequest request) {
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            return request.getIds();
+        }
+        LocalDateTime from = request.getFrom() != null ? request.getFrom().atStartOfDay() : null;
+        LocalDateTime to = request.getTo() != null ? request.getTo().plusDays(1).atStartOfDay() : null;
+        return orderRepository.findIdsForLabels(request.getStatus(), from, to);
+    }
+
+    public LabelLayout layoutOf(LabelSheetRequest request) {
+        if ("single".equalsIgnoreCase(request.getLayout())) {
+            return new LabelLayout(mm(100), mm(150), 1, 1);
+        }
+        if ("a4".equalsIgnoreCase(request.getLayout())) {
+            if (request.getColumns() < 1 || request.getColumns() > 4 || request.getRows() < 1 || request.getRows() > 8) {
+                throw new IllegalArgumentException("A4 düzeni 1-4 sütun, 1-8 satır olmalı");
+            }
+            return new LabelLayout(mm(210), mm(297), request.getColumns(), request.getRows());
+        }
+        throw new IllegalArgumentException("Geçersiz etiket düzeni: " + request.getLayout());
+    }
+
+    public void writeLabels(List<Long> orderIds, LabelLayout layout, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        String printDate = LocalDateTime.now().format(PRINT_DATE);
+        PdfContent content = new PdfContent();
+        int labelIndex = 0;
+        int cell = 0;
+
+        try (PdfStreamWriter pdf = new PdfStreamWriter(out, layout.pageWidth, layout.pageHeight)) {
+            for (int from = 0; from < orderIds.size(); from += fetchChunkSize) {
+                for (Order order : loadChunk(orderIds, from)) {
+                    int column = cell % layout.columns;
+                    int row = cell / layout.columns;
+                    double x = column * layout.cellWidth;
+                    double y = layout.pageHeight - (row + 1) * layout.cellHeight;
+                    drawLabel(content, order, x, y, layout.cellWidth, layout.cellHeight, printDate, ++labelIndex);
+
+                    if (++cell == layout.labelsPerPage()) {
+                        pdf.writePage(content);
+                        content.reset();
+                        cell = 0;
+                    }
+                }
+            }
+            if (cell > 0 || pdf.getPageCount() == 0) {
+                pdf.writePage(content);
+            }
+            pdf.finish();
+            log.info("Etiket PDF'i: {} etiket, {} sayfa, {} ms", labelIndex, pdf.getPageCount(),
+                    System.currentTimeMillis() - start);
+        }
+    }
+
+    // ZPL: her sipariş bir ^XA..^XZ etiketi; metin ve barkodu yazıcı kendisi rasterleştirir.
+    // Her parça sonunda flush edilir, binlerce etiket birkaç KB/sn hızla yazıcıya akabilir.
+    public void writeZplLabels(List<Long> orderIds, int dpi, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        String printDate = LocalDateTime.now().format(PRINT_DATE);
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        StringBuilder label = new StringBuilder(2048);
+        int count = 0;
+        for (int from = 0; from < orderIds.size(); from += fetchChunkSize) {
+            for (Order order : loadChunk(orderIds, from)) {
+                label.setLength(0);
+                appendZplLabel(label, order, dpi, printDate);
+                writer.append(label);
+                count++;
+            }
+            writer.flush();
+        }
+        log.info("ZPL etiketleri: {} etiket, {} dpi, {} ms", count, dpi, System.currentTimeMillis() - start);
+    }
+
+    public String renderZplLabel(Order order, int dpi) {
+        StringBuilder label = new StringBuilder(2048);
+        appendZplLabel(label, order, dpi, LocalDateTime.now().format(PRINT_DATE));
+        return label.toString();
+    }
+
+    // Yazıcı çözünürlüğü (nokta/inç); ZPL koordinatları bu çözünürlükte hesaplanır
+    public int zplDpiOf(int dpi) {
+        if (dpi != 152 && dpi != 203 && dpi != 300 && dpi != 600) {
+            throw new IllegalArgumentException("Desteklenmeyen yazıcı çözünürlüğü: " + dpi + " (152, 203, 300, 600)");
+        }
+        return dpi;
+    }
+
+    // Bir parça sipariş kalemleri ve ürünleriyle yüklenir; istenen sıra korunur, silinmiş siparişler atlanır
+    private List<Order> loadChunk(List<Long> orderIds, int from) {
+        List<Long> chunk = orderIds.subList(from, Math.min(orderIds.size(), from + fetchChunkSize));
+        Map<Long, Order> byId = new HashMap<>();
+        for (Order order : orderRepository.findWithItemsByIdIn(chunk)) {
+            byId.put(order.getId(), order);
+        }
+        List<Order> orders = new ArrayList<>(chunk.size());
+        for (Long id : chunk) {
+            Order order = byId.get(id);
+            if (order != null) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    // PDF etiketiyle aynı yerleşim, 100x150 mm; metin genişlikleri ^A0 için yaklaşık hesaplanır
+    private void appendZplLabel(StringBuilder target, Order order, int dpi, String printDate) {
+        int width = dots(100, dpi);
+        int height = dots(150, dpi);
+        int margin = dots(4, dpi);
+        int innerWidth = width - 2 * margin;
+        ZplBuilder zpl = new ZplBuilder(target).begin(width, height);
+
+        int y = margin;
+        int small = dots(2.5, dpi);
+        double dateWidth = PdfContent.textWidth(printDate, small, false);
+        zpl.text(margin, y, dots(4, dpi),
+                fit(nonEmpty(order.getCustomerName(), "Beste Koku"), dots(4, dpi), false, innerWidth - dateWidth - dots(2, dpi)));
+        zpl.textRight(margin, y, innerWidth, small, printDate);
+
+        y += dots(6, dpi);
+        int medium = dots(3.5, dpi);
+        String total = "Toplam: " + totalQuantity(order);
+        double totalWidth = PdfContent.textWidth(total, medium, false);
+        zpl.text(margin, y, medium,
+                fit("Sipariş No: " + nonEmpty(order.getOrderNumber(), ""), medium, false, innerWidth - totalWidth - dots(2, dpi)));
+        zpl.textRight(margin, y, innerWidth, medium, total);
+
+        y += dots(5.5, dpi);
+        int body = dots(3, dpi);
+        String address = nonEmpty(order.getDeliveryAddress(), nonEmpty(order.getAddress(), "Adres yok"));
+        for (String line : wrap(address, body, innerWidth, 3)) {
+            zpl.text(margin, y, body, line);
+            y += dots(3.75, dpi);
+        }
+
+        String cargoCode = nonEmpty(order.getCargoCampaignCode(), "");
+        y += dots(1.5, dpi);
+        zpl.text(margin, y, small, fit("Kargo Kampanya Kodu: " + cargoCode, small, false, innerWidth));
+        y += dots(4, dpi);
+        int barcodeHeight = dots(18, dpi);
+        appendZplBarcode(zpl, cargoCode, margin, y, innerWidth, barcodeHeight, body);
+
+        y += barcodeHeight + dots(3, dpi);
+        zpl.text(margin, y, small, "Stok Kodu");
+        zpl.textRight(margin, y, innerWidth, small, "Adet");
+        y += dots(3.5, dpi);
+        zpl.horizontalLine(margin, y, innerWidth, Math.max(1, dots(0.25, dpi)));
+        y += dots(1.5, dpi);
+
+        List<OrderItem> items = order.getOrderItems() != null ? order.getOrderItems() : List.of();
+        if (items.isEmpty()) {
+            zpl.text(margin, y, body, "Ürün yok");
+        }
+        int rowHeight = dots(4, dpi);
+        int bottom = height - margin;
+        for (int i = 0; i < items.size(); i++) {
+            if (y + 2 * rowHeight > bottom && i < items.size() - 1) {
+                zpl.text(margin, y, body, "+ " + (items.size() - i) + " kalem daha");
+                break;
+            }
+            OrderItem item = items.get(i);
+            String quantity = String.valueOf(item.getQuantity());
+            String stockCode = nonEmpty(item.getStockCode(),
+                    item.getProduct() != null ? nonEmpty(item.getProduct().getName(), "Yok") : "Yok");
+            zpl.text(margin, y, body,
+                    fit(stockCode, body, false, innerWidth - PdfContent.textWidth(quantity, body, false) - dots(3, dpi)));
+            zpl.textRight(margin, y, innerWidth, body, quantity);
+            y += rowHeight;
+        }
+        zpl.end();
+    }
+
+    // Modül genişliği (^BY) barkod sessiz bölgeleriyle birlikte alana sığan en büyük tam sayı nokta;
+    // modül sayısı yazıcının otomatik alt küme seçimiyle aynı olan ZXing kodlamasından alınır
+    private void appendZplBarcode(ZplBuilder zpl, String code, int x, int y, int width, int height, int textHeight) {
+        byte[] runs;
+        try {
+            runs = code.isEmpty() ? null : barcodeService.code128Pattern(code);
+        } catch (IllegalArgumentException e) {
+            runs = null;
+        }
+        int modules = runs != null ? BarcodePattern.moduleCount(runs) : 0;
+        int moduleWidth = runs != null ? Math.min(6, width / (modules + 2 * QUIET_ZONE_MODULES)) : 0;
+        if (moduleWidth < 1) {
+            zpl.text(x, y + height / 2, textHeight, "Barkod yok");
+            return;
+        }
+        zpl.code128(x + (width - modules * moduleWidth) / 2, y, moduleWidth, height, code);
+    }
+
+    private static int dots(double millimeters, int dpi) {
+        return (int) Math.round(millimeters * dpi / 25.4);
+    }
+
+    private void drawLabel(PdfContent content, Order order, double x0, double y0, double width, double height,
+                           String printDate, int labelIndex) {
+        double left = x0 + PADDING;
+        double right = x0 + width - PADDING;
+        double innerWidth = right - left;
+        double bottom = y0 + PADDING;
+        double y = y0 + height - PADDING;
+
+        // Üst bilgi: firma / alıcı adı, yazdırma tarihi ve etiket sırası
+        y -= 10;
+        double dateWidth = PdfContent.textWidth(printDate, 7, false);
+        content.text(FONT_BOLD, 10, left, y,
+                fit(nonEmpty(order.getCustomerName(), "Beste Koku"), 10, true, innerWidth - dateWidth - mm(2)));
+        content.text(FONT_REGULAR, 7, right - dateWidth, y + 2, printDate);
+        String index = String.valueOf(labelIndex);
+        content.text(FONT_REGULAR, 7, right - PdfContent.textWidth(index, 7, false), y - 6, index);
+
+        // Sipariş numarası ve toplam adet
+        y -= 9 * LINE_GAP + 2;
+        String total = "Toplam: " + totalQuantity(order);
+        double totalWidth = PdfContent.textWidth(total, 9, true);
+        content.text(FONT_BOLD, 9, left, y,
+                fit("Sipariş No: " + nonEmpty(order.getOrderNumber(), ""), 9, true, innerWidth - totalWidth - mm(2)));
+        content.text(FONT_BOLD, 9, right - totalWidth, y, total);
+
+        // Adres (en fazla 3 satır)
+        String address = nonEmpty(order.getDeliveryAddress(), nonEmpty(order.getAddress(), "Adres yok"));
+        for (String line : wrap(address, 8, innerWidth, 3)) {
+            y -= 8 * LINE_GAP;
+            content.text(FONT_REGULAR, 8, left, y, line);
+        }
+
+        // Kargo kampanya kodu ve barkodu
+        String cargoCode = nonEmpty(order.getCargoCampaignCode(), "");
+        y -= 7 * LINE_GAP + 3;
+        content.text(FONT_REGULAR, 7, left, y, fit("Kargo Kampanya Kodu: " + cargoCode, 7, false, innerWidth));
+        double barcodeHeight = Math.min(mm(18), height * 0.22);
+        y -= barcodeHeight + 2;
+        drawBarcode(content, cargoCode, left, y, innerWidth, barcodeHeight);
+
+        // Ürün listesi: sığmayan kalemler sayı olarak belirtilir
+        y -= 7 * LINE_GAP + 3;
+        content.text(FONT_BOLD, 7, left, y, "Stok Kodu");
+        content.text(FONT_BOLD, 7, right - PdfContent.textWidth("Adet", 7, true), y, "Adet");
+        y -= 2.5;
+        content.line(left, y, right, y, 0.5);
+        List<OrderItem> items = order.getOrderItems() != null ? order.getOrderItems() : List.of();
+        if (items.isEmpty()) {
+            content.text(FONT_REGULAR, 8, left, y - 8 * LINE_GAP, "Ürün yok");
+        }
+        for (int i = 0; i < items.size(); i++) {
+            boolean lastFitting = y - 2 * 8 * LINE_GAP < bottom;
+            y -= 8 * LINE_GAP;
+            if (lastFitting && i < items.size() - 1) {
+                content.text(FONT_REGULAR, 8, left, y, "+ " + (items.size() - i) + " kalem daha");
+                break;
+            }
+            OrderItem item = items.get(i);
+            String quantity = String.valueOf(item.getQuantity());
+            double quantityWidth = PdfContent.textWidth(quantity, 8, false);
+            String stockCode = nonEmpty(item.getStockCode(),
+                    item.getProduct() != null ? nonEmpty(item.getProduct().getName(), "Yok") : "Yok");
+            content.text(FONT_REGULAR, 8, left, y, fit(stockCode, 8, false, innerWidth - quantityWidth - mm(3)));
+            content.text(FONT_REGULAR, 8, right - quantityWidth, y, quantity);
+        }
+    }
+
+    // Modül genişliği alanı (iki yanda sessiz bölge dahil) dolduracak şekilde ölçeklenir;
+    // vektör olduğu için yazıcı çözünürlüğünde keskin basılır
+    private void drawBarcode(PdfContent content, String code, double x, double y, double width, double height) {
+        byte[] runs;
+        try {
+            runs = code.isEmpty() ? null : barcodeService.code128Pattern(code);
+        } catch (IllegalArgumentException e) {
+            runs = null;
+        }
+        if (runs == null) {
+            content.text(FONT_REGULAR, 8, x, y + height / 2, "Barkod yok");
+            return;
+        }
+        double module = width / (BarcodePattern.moduleCount(runs) + 2 * QUIET_ZONE_MODULES);
+        double position = x + QUIET_ZONE_MODULES * module;
+        boolean bar = true;
+        for (byte run : runs) {
+            double runWidth = (run & 0xff) * module;
+            if (bar && run != 0) {
+                content.rect(position, y, runWidth, height);
+            }
+            position += runWidth;
+            bar = !bar;
+        }
+        content.fill();
+    }
+
+    private static int totalQuantity(Order order) {
+        int total = 0;
+        if (order.getOrderItems() != null) {
+            for (OrderItem item : order.getOrderItems()) {
+                total += item.getQuantity() != null ? item.getQuantity() : 0;
+            }
+        }
+        return total;
+    }
+
+    private static String nonEmpty(String value, String fallback) {
+        return value != null && !value.isBlank() ? value.trim() : fallback;
+    }
+
+    // Genişliğe sığmayan metin kesilip ".." ile biter
+    private static String fit(String text, double fontSize, boolean bold, double maxWidth) {
+        if (PdfContent.textWidth(text, fontSize, bold) <= maxWidth) {
+            return text;
+        }
+        int end = text.length();
+        while (end > 0 && PdfContent.textWidth(text.substring(0, end) + "..", fontSize, bold) > maxWidth) {
+            end--;
+        }
+        return text.substring(0, end) + "..";
+    }
+
+    // Kelime sınırlarından satırlara böler; son satır sığmazsa kesilir
+    private static List<String> wrap(String text, double fontSize, double maxWidth, int maxLines) {
+        List<String> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
+        String[] words = text.split("\\s+");
+        for (int i = 0; i < words.length; i++) {
+            String candidate = line.length() == 0 ? words[i] : line + " " + words[i];
+            if (line.length() > 0 && PdfContent.textWidth(candidate, fontSize, false) > maxWidth) {
+                if (lines.size() == maxLines - 1) {
+                    lines.add(fit(line + " " + String.join(" ", List.of(words).subList(i, words.length)),
+                            fontSize, false, maxWidth));
+                    return lines;
+                }
+                lines.add(line.toString());
+                line.setLength(0);
+                line.append(words[i]);
+            } else {
+                line.setLength(0);
+                line.append(candidate);
+            }
+        }
+        if (line.length() > 0) {
+            lines.add(fit(line.toString(), fontSize, false, maxWidth));
+        }
+        return lines;
+    }
+
+    public static class LabelLayout {
+        private final double pageWidth;
+        private final double pageHeight;
+        private final int columns;
+        private final int rows;
+        private final double cellWidth;
+        private final double cellHeight;
+
+        LabelLayout(double pageWidth, double pageHeight, int columns, int rows) {
+            this.pageWidth = pageWidth;
+            this.pageHeight = pageHeight;
+            this.columns = columns;
+            this.rows = rows;
+            this.cellWidth = pageWidth / columns;
+            this.cellHeight = pageHeight / rows;
+        }
+
+        int labelsPerPage() {
+            return columns * rows;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.demo.service;
+
+import com.example.demo.model.OrderGroupDTO;
+import com.example.demo.model.OrderStatus;
+import com.example.demo.model.OrderSummaryDTO;
+import com.example.demo.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Paketleme ekranının hibrit gruplaması: siparişler alıcı + stok koduna göre tek geçişte gruplanır,
+// gruplar toplam adede göre 1li / 2li / 3lu / 4lu / 5veUstu olarak sıralanır.
+// Sonuç durum + tarih aralığı başına önbelleklenir; herhangi bir sipariş değişikliğinde tamamen silinir
+@Service
+public class OrderGroupingService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderGroupingService.class);
+
+    private static final List<String> GROUP_TYPES = List.of("1li", "2li", "3lu", "4lu", "5veUstu");
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final Map<String, List<OrderGroupDTO>> cache;
+
+    // Önbelleği geçersiz kılan her değişiklikte artar; hesaplama sürerken değişen sonuç önbelleğe yazılmaz
+    private final AtomicLong generation = new AtomicLong();
+
+    public OrderGroupingService(@Value("${orders.groups.cache-size:16}") int cacheSize) {
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<OrderGroupDTO>> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    // to dahil
+    @Transactional(readOnly = true)
+    public List<OrderGroupDTO> getGroups(OrderStatus status, LocalDate from, LocalDate to) {
+        String key = status + "|" + from + "|" + to;
+        List<OrderGroupDTO> groups = cache.get(key);
+        if (groups != null) {
+            return groups;
+        }
+        long startGeneration = generation.get();
+        long start = System.currentTimeMillis();
+        groups = computeGroups(status,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null);
+        if (generation.get() == startGeneration) {
+            cache.put(key, groups);
+        }
+        log.debug("{} için {} grup {} ms'de hesaplandı", key, groups.size(), System.currentTimeMillis() - start);
+        return groups;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdersChanged(OrdersChangedEvent event) {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    private List<OrderGroupDTO> computeGroups(OrderStatus status, LocalDateTime from, LocalDateTime to) {
+        // Kalem satırları üzerinden tek geçiş: satırlar sipariş sırasıyla gelir, sipariş değişince gruba eklenir
+        Map<String, GroupBuilder> builders = new LinkedHashMap<>();
+        OrderRow current = null;
+        for (OrderRepository.GroupingRow row : orderRepository.findGroupingRows(status, from, to)) {
+            if (current == null || !current.id.equals(row.getOrderId())) {
+                if (current != null) {
+                    current.addTo(builders);
+                }
+                current = new OrderRow(row);
+            }
+            current.addItem(row);
+        }
+        if (current != null) {
+            current.addTo(builders);
+        }
+
+        List<OrderGroupDTO> groups = new ArrayList<>(builders.size());
+        for (GroupBuilder builder : builders.values()) {
+            groups.add(builder.build());
+        }
+        // Aynı tipteki gruplar ilk görüldükleri sırada kalır (kararlı sıralama)
+        groups.sort(Comparator.comparingInt(group -> GROUP_TYPES.indexOf(group.getGroupType())));
+        return Collections.unmodifiableList(groups);
+    }
+
+    // Tek siparişin gruplamada kullanılan alanları ve kalemlerinden toplanan stok kodları
+    private static class OrderRow {
+        private final Long id;
+        private final String orderNumber;
+        private final String customerName;
+        private final String stockCode;
+        private final String barcode;
+        private final int totalItems;
+        private final double totalAmount;
+        private String firstItemCode; // sipariş stok kodu boşsa grup anahtarı için
+        private final List<String> itemStockCodes = new ArrayList<>();
+
+        OrderRow(OrderRepository.GroupingRow row) {
+            this.id = row.getOrderId();
+            this.orderNumber = row.getOrderNumber();
+            this.customerName = row.getCustomerName();
+            this.stockCode = row.getStockCode();
+            this.barcode = row.getBarcode();
+            this.totalItems = row.getTotalItems() != null ? row.getTotalItems() : 0;
+            this.totalAmount = row.getTotalAmount() != null ? row.getTotalAmount() : 0.0;
+        }
+
+        void addItem(OrderRepository.GroupingRow row) {
+            // LEFT JOIN: kalemi olmayan sipariş tek satır, kalem alanları boş
+            String code = firstNonEmpty(row.getItemStockCode(), row.getProductBarcode(), row.getProductName());
+            if (firstItemCode == null && code != null && !code.isBlank()) {
+                firstItemCode = code;
+            }
+            String itemStockCode = firstNonEmpty(row.getItemStockCode(), row.getProductName());
+            if (itemStockCode != null && !itemStockCode.isBlank()) {
+                itemStockCodes.add(itemStockCode);
+            }
+        }
+
+        void addTo(Map<String, GroupBuilder> builders) {
+            String customer = customerName();
+            String key = customer + "\u0000" + groupStockCode();
+            builders.computeIfAbsent(key, k -> new GroupBuilder(customer, orderNumber)).add(this);
+        }
+
+        // Alıcı adı tarih ya da sayı gibi görünüyorsa (hatalı sütun eşlemesi) sipariş numarasından alınır
+        private String customerName() {
+            String name = customerName != null ? customerName : "";
+            if (name.contains("/") || name.contains("-") || (!name.isEmpty() && name.chars().allMatch(Character::isDigit))) {
+                String[] parts = orderNumber.split("_", -1);
+                return parts.length > 1 ? parts[1] : orderNumber;
+            }
+            return name;
+        }
+
+        private String groupStockCode() {
+            if (stockCode != null && !stockCode.isEmpty()) {
+                return stockCode;
+            }
+            if (firstItemCode != null) {
+                return firstItemCode;
+            }
+            String prefix = orderNumber.split("-")[0];
+            return prefix.isEmpty() ? orderNumber : prefix;
+        }
+    }
+
+    private static class GroupBuilder {
+        private final String customerName;
+        private final String firstOrderNumber;
+        private final OrderGroupDTO group = new OrderGroupDTO();
+        private final Set<String> stockCodes = new LinkedHashSet<>();
+        private final Set<String> barcodes = new LinkedHashSet<>();
+
+        GroupBuilder(String customerName, String firstOrderNumber) {
+            this.customerName = customerName;
+            this.firstOrderNumber = firstOrderNumber;
+        }
+
+        void add(OrderRow order) {
+            group.getOrderIds().add(order.id);
+            // Önbellekteki grup yalnızca özet taşır; adres ve kalemler baskı anında ayrıca istenir
+            group.getItems().add(new OrderSummaryDTO(order.id, order.orderNumber, order.customerName,
+                    order.stockCode, order.barcode, order.totalItems, order.totalAmount));
+            group.setCount(group.getCount() + 1);
+            group.setTotalQuantity(group.getTotalQuantity() + order.totalItems);
+            group.setTotalAmount(group.getTotalAmount() + order.totalAmount);
+            if (order.barcode != null && !order.barcode.isBlank()) {
+                barcodes.add(order.barcode);
+            }
+            if (order.stockCode != null && !order.stockCode.isEmpty()) {
+                stockCodes.add(order.stockCode);
+            }
+            stockCodes.addAll(order.itemStockCodes);
+        }
+
+        OrderGroupDTO build() {
+            String groupType = groupTypeOf(group.getTotalQuantity());
+            group.setGroupType(groupType);
+            group.setGroupName(groupType.toUpperCase(Locale.ROOT) + " - " + customerName + " - " + firstOrderNumber);
+            group.setBarcode(String.join(", ", barcodes));
+            group.setStockCode(String.join(", ", stockCodes));
+            return group;
+        }
+    }
+
+    static String groupTypeOf(int totalQuantity) {
+        if (totalQuantity >= 5) return "5veUstu";
+        if (totalQuantity == 4) return "4lu";
+        if (totalQuantity == 3) return "3lu";
+        if (totalQuantity == 2) return "2li";
+        return "1li";
+    }
+
+    private static String firstNonEmpty(String... values) {
+        for (String value : values) {
+            if (value != null && !value.isEmpty()) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
@@ -5,12 +5,25 @@ import com.example.demo.repository.OrderRepository;
 import com.example.demo.repository.OrderItemRepository;
 import com.example.demo.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -26,6 +39,18 @@ public class OrderService {
     @Autowired
     private ProductRepository productRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${orders.page.max-size:500}")
+    private int maxPageSize;
+    
+    @Value("${orders.bulk-status.max-ids:5000}")
+    private int maxBulkStatusIds;
+    
+    @Value("${orders.details.max-ids:500}")
+    private int maxDetailIds;
+    
     public Order createOrder(OrderRequest request) {
         // Sipariş numarası oluştur
         String orderNumber = generateOrderNumber();
@@ -70,6 +95,8 @@ public class OrderService {
         savedOrder.setTotalItems(totalItems);
         savedOrder.setTotalAmount(totalAmount);
         
+        eventPublisher.publishEvent(new OrdersChangedEvent("create",
+                List.of(transitionOf(savedOrder, null, savedOrder.getStatus()))));
         return orderRepository.save(savedOrder);
     }
     
@@ -77,23 +104,114 @@ public class OrderService {
         return orderRepository.findAll();
     }
     
+    // Kalemler ve ürünler fetch join ile aynı sorguda gelir; sipariş başına ek sorgu yapılmaz
+    @Transactional(readOnly = true)
     public List<Order> getAllOrdersWithItems() {
-        List<Order> orders = orderRepository.findAll();
-        // OrderItems'ları yükle
-        for (Order order : orders) {
-            List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
-            // OrderItem'lardaki Product'ları yükle (lazy loading problemini çöz)
-            for (OrderItem item : items) {
-                if (item.getProduct() != null) {
-                    // Product'ı force load et
-                    item.getProduct().getId();
+        return orderRepository.findAllWithItems();
+    }
+    
+    // Sayfalı liste: önce filtreye uyan id'ler indeks sırasıyla (size + 1 adet, fazlası sonraki sayfanın varlığını gösterir),
+    // sonra yalnızca bu siparişler kalemleri ve ürünleriyle yüklenir
+    @Transactional(readOnly = true)
+    public Map<String, Object> getOrdersPage(OrderPageRequest request) {
+        int size = request.getSize();
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("Sayfa boyutu 1-" + maxPageSize + " arasında olmalı");
+        }
+        Collection<OrderStatus> statuses = request.getStatus() == null || request.getStatus().isEmpty()
+                ? EnumSet.allOf(OrderStatus.class)
+                : request.getStatus();
+        
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        String cursor = request.getCursor();
+        if (cursor != null && !cursor.isBlank()) {
+            // "<createdAt>_<id>"; createdAt değeri olmayan sipariş için "_<id>"
+            int separator = cursor.lastIndexOf('_');
+            try {
+                if (separator < 0) {
+                    throw new NumberFormatException();
+                }
+                if (separator > 0) {
+                    afterCreatedAt = LocalDateTime.parse(cursor.substring(0, separator));
+                }
+                afterId = Long.parseLong(cursor.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Geçersiz cursor: " + cursor);
+            }
+        }
+        
+        List<Long> ids = orderRepository.findPageIds(statuses,
+                startOf(request.getCreatedFrom()), endOf(request.getCreatedTo()),
+                startOf(request.getUpdatedFrom()), endOf(request.getUpdatedTo()),
+                blankToNull(request.getBrand()), blankToNull(request.getStockCode()),
+                afterCreatedAt, afterId, Limit.of(size + 1));
+        boolean hasMore = ids.size() > size;
+        if (hasMore) {
+            ids = ids.subList(0, size);
+        }
+        
+        List<OrderDTO> orders = loadWithItems(ids);
+        
+        // Sonraki sayfa bu sayfanın son kaydından devam eder (OFFSET yok; araya eklenen kayıtlar sayfaları kaydırmaz)
+        String nextCursor = null;
+        if (hasMore && !orders.isEmpty()) {
+            OrderDTO last = orders.get(orders.size() - 1);
+            nextCursor = (last.getCreatedAt() != null ? last.getCreatedAt().toString() : "") + "_" + last.getId();
+        }
+        
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("orders", orders);
+        page.put("size", orders.size());
+        page.put("nextCursor", nextCursor);
+        return page;
+    }
+    
+    private static LocalDateTime startOf(LocalDate date) {
+        return date != null ? date.atStartOfDay() : null;
+    }
+    
+    // Bitiş günü dahil
+    private static LocalDateTime endOf(LocalDate date) {
+        return date != null ? date.plusDays(1).atStartOfDay() : null;
+    }
+    
+    // Paketleme ekranı baskısı: gruplar yalnızca özet taşır, adres ve kalemler baskı anında bu id'lerle istenir
+    @Transactional(readOnly = true)
+    public List<OrderDTO> getOrderDetails(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Sipariş id listesi boş");
+        }
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.remove(null);
+        if (distinct.size() > maxDetailIds) {
+            throw new IllegalArgumentException("En fazla " + maxDetailIds + " sipariş istenebilir");
+        }
+        return loadWithItems(distinct);
+    }
+    
+    // Siparişler kalemleri ve ürünleriyle tek sorguda yüklenir, istenen id sırasıyla döner (bulunamayanlar atlanır)
+    private List<OrderDTO> loadWithItems(List<Long> ids) {
+        List<OrderDTO> orders = new ArrayList<>(ids.size());
+        if (!ids.isEmpty()) {
+            Map<Long, Order> byId = new HashMap<>();
+            for (Order order : orderRepository.findWithItemsByIdIn(ids)) {
+                byId.put(order.getId(), order);
+            }
+            for (Long id : ids) {
+                Order order = byId.get(id);
+                if (order != null) {
+                    orders.add(new OrderDTO(order, order.getOrderItems()));
                 }
             }
-            order.setOrderItems(items);
         }
         return orders;
     }
     
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+    
     public Optional<Order> getOrderById(Long id) {
         return orderRepository.findById(id);
     }
@@ -118,17 +236,87 @@ public class OrderService {
         Optional<Order> orderOpt = orderRepository.findById(id);
         if (orderOpt.isPresent()) {
             Order order = orderOpt.get();
+            OrderStatus previous = order.getStatus();
             order.setStatus(status);
             // Status değiştiğinde updatedAt'i güncelle
             order.setUpdatedAt(LocalDateTime.now());
+            eventPublisher.publishEvent(new OrdersChangedEvent("status",
+                    previous == status ? List.of() : List.of(transitionOf(order, previous, status))));
             return orderRepository.save(order);
         }
         return null;
     }
     
+    // Baskı sonrası toplu geçiş (örn. SHIPPED): sipariş başına findById + save yerine tek set tabanlı UPDATE
+    public Map<String, Object> updateOrderStatuses(OrderStatusBulkRequest request) {
+        if (request.getStatus() == null) {
+            throw new IllegalArgumentException("Yeni durum (status) zorunlu");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", request.getStatus());
+        int updated;
+        // Güncellenecek siparişlerin gün + durum dağılımı (durum sayaçları için), UPDATE ile aynı transaction'da
+        List<OrderRepository.DailyStatusTotals> changes;
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            Set<Long> ids = new LinkedHashSet<>(request.getIds());
+            ids.remove(null);
+            if (ids.size() > maxBulkStatusIds) {
+                throw new IllegalArgumentException("En fazla " + maxBulkStatusIds + " sipariş güncellenebilir");
+            }
+            long existing = orderRepository.countByIdIn(ids);
+            changes = orderRepository.sumByDayAndStatusForIds(ids, request.getStatus());
+            updated = orderRepository.updateStatusByIdIn(ids, request.getStatus(), now);
+            result.put("requested", ids.size());
+            result.put("updated", updated);
+            result.put("unchanged", existing - updated); // zaten hedef durumda
+            result.put("notFound", ids.size() - existing);
+        } else {
+            // Filtreyle tüm siparişlerin yanlışlıkla güncellenmemesi için mevcut durum zorunlu
+            if (request.getCurrentStatus() == null) {
+                throw new IllegalArgumentException("ids ya da currentStatus verilmeli");
+            }
+            LocalDateTime from = startOf(request.getFrom());
+            LocalDateTime to = endOf(request.getTo());
+            changes = orderRepository.sumByDayAndStatusForFilter(request.getCurrentStatus(), from, to, request.getStatus());
+            updated = orderRepository.updateStatusByFilter(request.getCurrentStatus(), from, to, request.getStatus(), now);
+            result.put("updated", updated);
+        }
+        if (updated > 0) {
+            eventPublisher.publishEvent(new OrdersChangedEvent("bulk-status", transitionsOf(changes, request.getStatus(), updated)));
+        }
+        return result;
+    }
+    
+    private static OrdersChangedEvent.StatusTransition transitionOf(Order order, OrderStatus from, OrderStatus to) {
+        return new OrdersChangedEvent.StatusTransition(
+                order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : null, from, to, 1,
+                order.getTotalAmount() != null ? order.getTotalAmount() : 0.0,
+                order.getTotalItems() != null ? order.getTotalItems() : 0);
+    }
+    
+    // Dağılım UPDATE'in etkilediği satır sayısıyla uyuşmuyorsa (araya giren başka bir yazma) geçişler bilinmiyor sayılır
+    private static List<OrdersChangedEvent.StatusTransition> transitionsOf(List<OrderRepository.DailyStatusTotals> changes,
+                                                                           OrderStatus to, int updated) {
+        List<OrdersChangedEvent.StatusTransition> transitions = new ArrayList<>(changes.size());
+        long count = 0;
+        for (OrderRepository.DailyStatusTotals change : changes) {
+            transitions.add(new OrdersChangedEvent.StatusTransition(change.getDay(), change.getStatus(), to,
+                    change.getOrderCount(),
+                    change.getTotalAmount() != null ? change.getTotalAmount() : 0.0,
+                    change.getTotalItems() != null ? change.getTotalItems() : 0));
+            count += change.getOrderCount();
+        }
+        return count == updated ? transitions : null;
+    }
+    
     public boolean deleteOrder(Long id) {
-        if (orderRepository.existsById(id)) {
-            orderRepository.deleteById(id);
+        Optional<Order> orderOpt = orderRepository.findById(id);
+        if (orderOpt.isPresent()) {
+            Order order = orderOpt.get();
+            orderRepository.delete(order);
+            eventPublisher.publishEvent(new OrdersChangedEvent("delete",
+                    List.of(transitionOf(order, order.getStatus(), null))));
             return true;
         }
         return false;
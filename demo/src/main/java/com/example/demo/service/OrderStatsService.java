@@ -0,0 +1,170 @@
+package com.example.demo.service;
+
+import com.example.demo.model.OrderStatus;
+import com.example.demo.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.*;
+
+// Rapor ekranı için durum başına sipariş adedi, tutar ve ürün adedi.
+// Oluşturulma günü + durum başına sayaçlar bellekte tutulur ve durum geçişleriyle (OrdersChangedEvent) güncellenir;
+// tarih aralığı sorgusu veritabanına gitmeden günlerin toplamıdır. Marka filtresi tek GROUP BY sorgusuyla hesaplanır
+@Service
+public class OrderStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatsService.class);
+
+    // createdAt değeri olmayan siparişler: yalnızca tarih sınırı verilmemişse sayılır
+    private static final LocalDate UNDATED = LocalDate.MIN;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private TreeMap<LocalDate, EnumMap<OrderStatus, Totals>> counters; // null: yüklenmedi ya da geçersiz
+
+    // Sayaçları etkileyen her olayda artar; yükleme sürerken olay gelirse yüklenen sonuç saklanmaz
+    private long generation;
+
+    // to dahil; sayaçlar yüklüyse veritabanına gidilmez
+    public Map<String, Object> getStats(LocalDate from, LocalDate to, String brand) {
+        EnumMap<OrderStatus, Totals> totals = new EnumMap<>(OrderStatus.class);
+        if (brand != null && !brand.isBlank()) {
+            for (OrderRepository.StatusTotals row : orderRepository.sumByStatus(
+                    from != null ? from.atStartOfDay() : null,
+                    to != null ? to.plusDays(1).atStartOfDay() : null,
+                    brand.trim())) {
+                totals.computeIfAbsent(row.getStatus(), s -> new Totals()).add(row);
+            }
+        } else {
+            sumCounters(from, to, totals);
+        }
+
+        Map<String, Object> statuses = new LinkedHashMap<>();
+        Totals all = new Totals();
+        for (OrderStatus status : OrderStatus.values()) {
+            Totals statusTotals = totals.getOrDefault(status, new Totals());
+            statuses.put(status.name(), statusTotals.toMap());
+            all.add(statusTotals);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("from", from);
+        stats.put("to", to);
+        stats.put("brand", brand);
+        stats.put("totalOrders", all.count);
+        stats.put("totalAmount", all.amount);
+        stats.put("totalItems", all.items);
+        stats.put("statuses", statuses);
+        return stats;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onOrdersChanged(OrdersChangedEvent event) {
+        generation++;
+        if (counters == null) {
+            return;
+        }
+        if (event.getTransitions() == null) {
+            counters = null;
+            return;
+        }
+        for (OrdersChangedEvent.StatusTransition transition : event.getTransitions()) {
+            LocalDate day = transition.getDay() != null ? transition.getDay() : UNDATED;
+            if (transition.getFrom() != null) {
+                counter(day, transition.getFrom()).add(transition, -1);
+            }
+            if (transition.getTo() != null) {
+                counter(day, transition.getTo()).add(transition, 1);
+            }
+        }
+    }
+
+    private void sumCounters(LocalDate from, LocalDate to, EnumMap<OrderStatus, Totals> totals) {
+        long startGeneration;
+        synchronized (this) {
+            if (counters != null) {
+                sumDays(counters, from, to, totals);
+                return;
+            }
+            startGeneration = generation;
+        }
+
+        // İlk istek (ya da bilinmeyen bir değişiklik sonrası): tüm siparişler gün + durum başına tek sorguda
+        long start = System.currentTimeMillis();
+        TreeMap<LocalDate, EnumMap<OrderStatus, Totals>> loaded = new TreeMap<>();
+        for (OrderRepository.DailyStatusTotals row : orderRepository.sumByDayAndStatus()) {
+            LocalDate day = row.getDay() != null ? row.getDay() : UNDATED;
+            loaded.computeIfAbsent(day, d -> new EnumMap<>(OrderStatus.class))
+                    .computeIfAbsent(row.getStatus(), s -> new Totals())
+                    .add(row);
+        }
+        log.debug("Durum sayaçları {} gün için {} ms'de yüklendi", loaded.size(), System.currentTimeMillis() - start);
+        synchronized (this) {
+            if (generation == startGeneration) {
+                counters = loaded;
+            }
+            sumDays(loaded, from, to, totals);
+        }
+    }
+
+    private static void sumDays(TreeMap<LocalDate, EnumMap<OrderStatus, Totals>> days, LocalDate from, LocalDate to,
+                                EnumMap<OrderStatus, Totals> totals) {
+        NavigableMap<LocalDate, EnumMap<OrderStatus, Totals>> range = days;
+        // Tarihsiz siparişler (UNDATED = en küçük gün) yalnızca hiç tarih sınırı yokken sayılır
+        if (from != null || to != null) {
+            range = range.tailMap(UNDATED, false);
+        }
+        if (from != null) {
+            range = range.tailMap(from, true);
+        }
+        if (to != null) {
+            range = range.headMap(to, true);
+        }
+        for (EnumMap<OrderStatus, Totals> day : range.values()) {
+            for (Map.Entry<OrderStatus, Totals> entry : day.entrySet()) {
+                totals.computeIfAbsent(entry.getKey(), s -> new Totals()).add(entry.getValue());
+            }
+        }
+    }
+
+    private Totals counter(LocalDate day, OrderStatus status) {
+        return counters.computeIfAbsent(day, d -> new EnumMap<>(OrderStatus.class))
+                .computeIfAbsent(status, s -> new Totals());
+    }
+
+    private static class Totals {
+        private long count;
+        private double amount;
+        private long items;
+
+        void add(OrderRepository.StatusTotals row) {
+            count += row.getOrderCount() != null ? row.getOrderCount() : 0;
+            amount += row.getTotalAmount() != null ? row.getTotalAmount() : 0.0;
+            items += row.getTotalItems() != null ? row.getTotalItems() : 0;
+        }
+
+        void add(OrdersChangedEvent.StatusTransition transition, int sign) {
+            count += sign * transition.getCount();
+            amount += sign * transition.getAmount();
+            items += sign * transition.getItems();
+        }
+
+        void add(Totals other) {
+            count += other.count;
+            amount += other.amount;
+            items += other.items;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("count", count);
+            map.put("amount", amount);
+            map.put("items", items);
+            return map;
+        }
+    }
+}
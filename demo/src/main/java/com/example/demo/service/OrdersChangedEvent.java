@@ -0,0 +1,76 @@
+package com.example.demo.service;
+
+import com.example.demo.model.OrderStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Sipariş eklendi, silindi ya da durumu değişti; sipariş listesinden türetilen önbellekler geçersiz olur.
+// Dinleyiciler transaction commit edildikten sonra çalışır
+public class OrdersChangedEvent {
+
+    private final String reason;
+    private final List<StatusTransition> transitions;
+
+    // Değişikliğin etkisi bilinmiyor (örn. Excel import): sayaçlar yeniden yüklenir
+    public OrdersChangedEvent(String reason) {
+        this(reason, null);
+    }
+
+    public OrdersChangedEvent(String reason, List<StatusTransition> transitions) {
+        this.reason = reason;
+        this.transitions = transitions;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    // null: bilinmiyor, boş liste: durum sayaçları değişmedi
+    public List<StatusTransition> getTransitions() {
+        return transitions;
+    }
+
+    // Aynı oluşturulma gününe ait siparişlerin from -> to geçişi; from null ise yeni sipariş, to null ise silinen sipariş
+    public static class StatusTransition {
+        private final LocalDate day;
+        private final OrderStatus from;
+        private final OrderStatus to;
+        private final long count;
+        private final double amount;
+        private final long items;
+
+        public StatusTransition(LocalDate day, OrderStatus from, OrderStatus to, long count, double amount, long items) {
+            this.day = day;
+            this.from = from;
+            this.to = to;
+            this.count = count;
+            this.amount = amount;
+            this.items = items;
+        }
+
+        public LocalDate getDay() {
+            return day;
+        }
+
+        public OrderStatus getFrom() {
+            return from;
+        }
+
+        public OrderStatus getTo() {
+            return to;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        public long getItems() {
+            return items;
+        }
+    }
+}
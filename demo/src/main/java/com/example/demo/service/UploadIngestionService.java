@@ -0,0 +1,131 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Yüklenen dosyayı tek geçişte arşiv dizinine yazar; SHA-256 özeti aynı tampon üzerinden hesaplanır.
+// Dosya arşiv dizininin altında tutulduğu için arşivleme bir kopya değil, aynı dosya sistemi içinde yeniden adlandırmadır.
+@Service
+public class UploadIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadIngestionService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String INCOMING_DIR = ".incoming";
+
+    @Value("${excel.import.archive-dir:uploads/excel}")
+    private String archiveDir;
+
+    public static class IngestedFile {
+        private final Path path;
+        private final String contentHash;
+        private final long size;
+
+        IngestedFile(Path path, String contentHash, long size) {
+            this.path = path;
+            this.contentHash = contentHash;
+            this.size = size;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public String getContentHash() {
+            return contentHash;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+
+    // Önceki çalıştırmadan yarım kalmış yüklemeleri temizle
+    @PostConstruct
+    public void cleanIncoming() throws IOException {
+        Path incoming = Paths.get(archiveDir, INCOMING_DIR);
+        if (!Files.isDirectory(incoming)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(incoming, "*.part")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    public IngestedFile ingest(InputStream inputStream) throws IOException {
+        Path incoming = Files.createDirectories(Paths.get(archiveDir, INCOMING_DIR));
+        Path target = Files.createTempFile(incoming, "upload-", ".part");
+        MessageDigest digest = newSha256();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long size = 0;
+
+        try (ReadableByteChannel source = Channels.newChannel(inputStream);
+             FileChannel sink = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                while (buffer.hasRemaining()) {
+                    size += sink.write(buffer);
+                }
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+        return new IngestedFile(target, HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    // Dosya adı içerik özetidir; aynı içerik zaten arşivdeyse yeni kopya tutulmaz
+    public Path archive(Path file, String contentHash) throws IOException {
+        Path target = Paths.get(archiveDir).resolve(contentHash + ".xlsx");
+        if (Files.exists(target)) {
+            Files.deleteIfExists(file);
+            return target;
+        }
+        try {
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return target;
+    }
+
+    public void discard(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Geçici dosya silinemedi: {} - {}", file, e.getMessage());
+        }
+    }
+
+    private MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
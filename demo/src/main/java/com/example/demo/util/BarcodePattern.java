@@ -0,0 +1,66 @@
+package com.example.demo.util;
+
+import java.util.Arrays;
+
+// 1D barkodun çözünürlükten bağımsız modül deseni: sırayla çubuk / boşluk genişlikleri (modül cinsinden).
+// İlk eleman her zaman çubuktur (desen boşlukla başlıyorsa 0). Code128'de bir koşu en fazla 4 modüldür.
+public final class BarcodePattern {
+
+    private BarcodePattern() {
+    }
+
+    public static byte[] toRuns(boolean[] modules) {
+        byte[] runs = new byte[modules.length + 1];
+        int count = 0;
+        int length = 0;
+        boolean bar = true;
+        for (boolean module : modules) {
+            if (module != bar) {
+                runs[count++] = toRunByte(length);
+                bar = module;
+                length = 0;
+            }
+            length++;
+        }
+        runs[count++] = toRunByte(length);
+        return Arrays.copyOf(runs, count);
+    }
+
+    private static byte toRunByte(int length) {
+        if (length > 0xff) {
+            throw new IllegalArgumentException("Modül koşusu çok uzun: " + length);
+        }
+        return (byte) length;
+    }
+
+    public static int moduleCount(byte[] runs) {
+        int modules = 0;
+        for (byte run : runs) {
+            modules += run & 0xff;
+        }
+        return modules;
+    }
+
+    // OneDimensionalCodeWriter.renderResult ile aynı yerleşim: modül genişliği tam sayı katı,
+    // kalan boşluk iki yana eşit dağıtılır (çubuklar bulanıklaşmaz). true = siyah piksel.
+    public static boolean[] rasterizeRow(byte[] runs, int width, int sidesMargin) {
+        int inputWidth = moduleCount(runs);
+        int fullWidth = inputWidth + sidesMargin;
+        int outputWidth = Math.max(width, fullWidth);
+        int multiple = outputWidth / fullWidth;
+        int leftPadding = (outputWidth - inputWidth * multiple) / 2;
+
+        boolean[] row = new boolean[outputWidth];
+        int x = leftPadding;
+        boolean bar = true;
+        for (byte run : runs) {
+            int pixels = (run & 0xff) * multiple;
+            if (bar) {
+                Arrays.fill(row, x, x + pixels, true);
+            }
+            x += pixels;
+            bar = !bar;
+        }
+        return row;
+    }
+}
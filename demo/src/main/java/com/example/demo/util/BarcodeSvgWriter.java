@@ -0,0 +1,42 @@
+package com.example.demo.util;
+
+// Modül deseninden vektör SVG üretir: tüm çubuklar tek <path> içinde, koordinatlar modül cinsinden.
+// viewBox modül birimindedir ve preserveAspectRatio="none" ile istenen boyuta gerilir; yazdırırken bulanıklaşmaz.
+public final class BarcodeSvgWriter {
+
+    private BarcodeSvgWriter() {
+    }
+
+    // Boyutlar PNG ile aynı kurala uyar: genişlik en az modül + kenar boşluğu, yükseklik en az 1
+    public static String write(byte[] runs, int width, int height, int sidesMargin) {
+        int inputWidth = BarcodePattern.moduleCount(runs);
+        int fullWidth = inputWidth + sidesMargin;
+        int outputWidth = Math.max(width, fullWidth);
+        int outputHeight = Math.max(1, height);
+
+        StringBuilder svg = new StringBuilder(128 + runs.length * 6);
+        svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(outputWidth)
+                .append("\" height=\"").append(outputHeight)
+                .append("\" viewBox=\"0 0 ").append(fullWidth * 2).append(" 1\"")
+                .append(" preserveAspectRatio=\"none\" shape-rendering=\"crispEdges\">");
+        svg.append("<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/><path d=\"");
+
+        // Yarım modül kenar boşluğu tam sayı kalsın diye x ekseni yarım modül biriminde.
+        // "z" kalemi çubuğun sol üstüne döndürür; sonraki çubuğa göreli "m" ile geçilir.
+        int x = sidesMargin;
+        int pen = 0;
+        boolean bar = true;
+        for (byte run : runs) {
+            int length = (run & 0xff) * 2;
+            if (bar && length > 0) {
+                svg.append(pen == 0 ? "M" : "m").append(x - pen).append(" 0h").append(length)
+                        .append("v1h-").append(length).append('z');
+                pen = x;
+            }
+            x += length;
+            bar = !bar;
+        }
+        svg.append("\"/></svg>");
+        return svg.toString();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.demo.util;
+
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// 1D barkod görselini doğrudan 1-bit gri tonlu PNG'ye yazar (siyah = 0, beyaz = 1).
+// MatrixToImageWriter'ın piksel başına 4 baytlık BufferedImage + ImageIO yolunu atlar.
+// Ham satır tamponu, Deflater ve çıktı tamponu thread başına tekrar kullanılır.
+public class BitMatrixPngEncoder {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+    private static final byte[] IHDR = {'I', 'H', 'D', 'R'};
+    private static final byte[] IDAT = {'I', 'D', 'A', 'T'};
+    private static final byte[] IEND = {'I', 'E', 'N', 'D'};
+
+    private static final int FILTER_NONE = 0;
+    private static final int FILTER_UP = 2;
+
+    // Thread başına tutulan tamponların üst sınırı: etiket boyutlarındaki (300x100 civarı) görseller tamponu tekrar kullanır,
+    // daha büyük bir görselin tamponu işi bitince bırakılır
+    private static final int RETAINED_BUFFER_BYTES = 64 * 1024;
+
+    private final ThreadLocal<Buffers> buffers;
+
+    // level: Deflater seviyesi (0-9); küçük barkodlarda 6 ile 9 arasındaki boyut farkı birkaç bayttır
+    public BitMatrixPngEncoder(int level) {
+        if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Geçersiz deflate seviyesi: " + level);
+        }
+        this.buffers = ThreadLocal.withInitial(() -> new Buffers(level));
+    }
+
+    // Tüm satırları aynı olan görsel (1D barkod): satır bir kez paketlenir, sonraki satırlar "Up" filtresiyle sıfırdır
+    // ve deflate neredeyse bedava olur.
+    public byte[] encodeRepeatedRow(boolean[] blackPixels, int height) {
+        int width = blackPixels.length;
+        int rowBytes = (width + 7) / 8;
+        Buffers b = buffers.get();
+
+        byte[] raw = b.raw(height * (rowBytes + 1));
+        raw[0] = FILTER_NONE;
+        Arrays.fill(raw, 1, rowBytes + 1, (byte) 0);
+        for (int x = 0; x < width; x++) {
+            if (!blackPixels[x]) {
+                raw[1 + (x >> 3)] |= (byte) (0x80 >>> (x & 7));
+            }
+        }
+        int pos = rowBytes + 1;
+        for (int y = 1; y < height; y++) {
+            raw[pos] = FILTER_UP;
+            Arrays.fill(raw, pos + 1, pos + 1 + rowBytes, (byte) 0);
+            pos += rowBytes + 1;
+        }
+        return writePng(b, width, height, pos);
+    }
+
+    private byte[] writePng(Buffers b, int width, int height, int rawLength) {
+        byte[] raw = b.raw;
+        int pos = rawLength;
+        Deflater deflater = b.deflater;
+        deflater.reset();
+        deflater.setInput(raw, 0, pos);
+        deflater.finish();
+        byte[] compressed = b.compressed(pos + (pos >> 12) + (pos >> 14) + 64); // zlib üst sınırı
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.length) {
+                compressed = b.growCompressed();
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+
+        byte[] png = new byte[SIGNATURE.length + (12 + 13) + (12 + compressedLength) + 12];
+        System.arraycopy(SIGNATURE, 0, png, 0, SIGNATURE.length);
+        int offset = SIGNATURE.length;
+
+        byte[] header = b.header;
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 1; // bit derinliği
+        header[9] = 0; // renk tipi: gri ton
+        header[10] = 0; // sıkıştırma: deflate
+        header[11] = 0; // filtre yöntemi
+        header[12] = 0; // interlace yok
+        offset = writeChunk(png, offset, IHDR, header, 13, b.crc);
+        offset = writeChunk(png, offset, IDAT, compressed, compressedLength, b.crc);
+        writeChunk(png, offset, IEND, compressed, 0, b.crc);
+        b.trim();
+        return png;
+    }
+
+    private static int writeChunk(byte[] png, int offset, byte[] type, byte[] data, int length, CRC32 crc) {
+        putInt(png, offset, length);
+        System.arraycopy(type, 0, png, offset + 4, 4);
+        System.arraycopy(data, 0, png, offset + 8, length);
+        crc.reset();
+        crc.update(png, offset + 4, 4 + length);
+        putInt(png, offset + 8 + length, (int) crc.getValue());
+        return offset + 12 + length;
+    }
+
+    private static void putInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    private static final class Buffers {
+        private final Deflater deflater;
+        private final CRC32 crc = new CRC32();
+        private final byte[] header = new byte[13];
+        private byte[] raw = new byte[0];
+        private byte[] compressed = new byte[0];
+
+        Buffers(int level) {
+            this.deflater = new Deflater(level);
+        }
+
+        byte[] raw(int size) {
+            if (raw.length < size) raw = new byte[size];
+            return raw;
+        }
+
+        byte[] compressed(int size) {
+            if (compressed.length < size) compressed = new byte[size];
+            return compressed;
+        }
+
+        void trim() {
+            if (raw.length > RETAINED_BUFFER_BYTES) raw = new byte[0];
+            if (compressed.length > RETAINED_BUFFER_BYTES) compressed = new byte[0];
+        }
+
+        byte[] growCompressed() {
+            compressed = Arrays.copyOf(compressed, compressed.length * 2 + 64);
+            return compressed;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+// Toplam bayt boyutuyla sınırlı LRU önbellek. Sınır aşılınca en uzun süredir kullanılmayan kayıtlar atılır.
+// Değer boyutu keySize + value.length olarak hesaplanır; sınırdan büyük tek kayıt önbelleğe alınmaz.
+public class ByteBoundedLruCache<K> {
+
+    private final long maxBytes;
+    private final ToLongFunction<K> keySize;
+    private final LinkedHashMap<K, byte[]> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long currentBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ByteBoundedLruCache(long maxBytes, ToLongFunction<K> keySize) {
+        this.maxBytes = maxBytes;
+        this.keySize = keySize;
+    }
+
+    public byte[] get(K key) {
+        byte[] value;
+        synchronized (this) {
+            value = entries.get(key);
+        }
+        if (value != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return value;
+    }
+
+    public void put(K key, byte[] value) {
+        long size = sizeOf(key, value);
+        if (size > maxBytes) {
+            return;
+        }
+        synchronized (this) {
+            byte[] previous = entries.put(key, value);
+            if (previous != null) {
+                currentBytes -= sizeOf(key, previous);
+            }
+            currentBytes += size;
+
+            // Erişim sırasına göre en eski kayıttan başlayarak sınırın altına in
+            Iterator<Map.Entry<K, byte[]>> eldest = entries.entrySet().iterator();
+            while (currentBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<K, byte[]> entry = eldest.next();
+                currentBytes -= sizeOf(entry.getKey(), entry.getValue());
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    private long sizeOf(K key, byte[] value) {
+        return keySize.applyAsLong(key) + value.length;
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long requests = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("entries", entries.size());
+            stats.put("bytes", currentBytes);
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.get());
+        stats.put("hitRatio", requests == 0 ? 0.0 : (double) hitCount / requests);
+        return stats;
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.demo.util;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// İçerik adresli disk önbelleği: dosya adı içeriği üreten anahtarın özetidir (<dizin>/<ilk 2 karakter>/<ad>).
+// Toplam boyut sınırı aşılınca en uzun süredir kullanılmayan dosyalar silinir. Erişim sırası bellekte tutulur;
+// yeniden başlatmada dizin taranır ve sıra dosyaların yazılma zamanından kurulur.
+public class DiskContentStore {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path root;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(1024, 0.75f, true); // ad -> boyut
+    private long currentBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public DiskContentStore(Path root, long maxBytes) throws IOException {
+        this.root = root;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(root);
+        load();
+    }
+
+    private void load() throws IOException {
+        List<Path> files = new ArrayList<>();
+        List<BasicFileAttributes> attributes = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(root, 2)) {
+            for (Path file : (Iterable<Path>) walk::iterator) {
+                BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                if (!attrs.isRegularFile()) continue;
+                // Yarım kalmış yazımlar
+                if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                files.add(file);
+                attributes.add(attrs);
+            }
+        }
+        List<Integer> order = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) order.add(i);
+        order.sort(Comparator.comparing(i -> attributes.get(i).lastModifiedTime()));
+        synchronized (this) {
+            for (int i : order) {
+                entries.put(files.get(i).getFileName().toString(), attributes.get(i).size());
+                currentBytes += attributes.get(i).size();
+            }
+            evictToLimit();
+        }
+    }
+
+    // Dosya varsa yolunu döner (ve en yeni kullanılan olarak işaretler)
+    public Path find(String name) {
+        boolean known;
+        synchronized (this) {
+            known = entries.get(name) != null;
+        }
+        if (!known) {
+            misses.incrementAndGet();
+            return null;
+        }
+        Path file = resolve(name);
+        if (!Files.isRegularFile(file)) {
+            // Dışarıdan silinmiş
+            remove(name);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return file;
+    }
+
+    public byte[] read(String name) throws IOException {
+        Path file = find(name);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            remove(name);
+            return null;
+        }
+    }
+
+    // Dosya açıkken tahliye edilse de kanal okunabilir kalır; dosya yoksa null
+    public FileChannel open(String name) throws IOException {
+        Path file = find(name);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return FileChannel.open(file, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            remove(name);
+            return null;
+        }
+    }
+
+    // Geçici dosyaya yazılıp atomik olarak yerine taşınır; okuyucular yarım dosya görmez
+    public void write(String name, byte[] content) throws IOException {
+        if (content.length > maxBytes) {
+            return;
+        }
+        synchronized (this) {
+            if (entries.containsKey(name)) {
+                return;
+            }
+        }
+        Path file = resolve(name);
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), name, TEMP_SUFFIX);
+        try {
+            Files.write(temp, content);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        writes.incrementAndGet();
+        synchronized (this) {
+            if (entries.put(name, (long) content.length) == null) {
+                currentBytes += content.length;
+            }
+            evictToLimit();
+        }
+    }
+
+    public synchronized void clear() throws IOException {
+        for (String name : entries.keySet()) {
+            Files.deleteIfExists(resolve(name));
+        }
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    private synchronized void remove(String name) {
+        Long size = entries.remove(name);
+        if (size != null) {
+            currentBytes -= size;
+        }
+    }
+
+    private void evictToLimit() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            try {
+                Files.deleteIfExists(resolve(entry.getKey()));
+            } catch (IOException e) {
+                // Silinemeyen dosya bir sonraki taramada tekrar değerlendirilir
+            }
+            currentBytes -= entry.getValue();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private Path resolve(String name) {
+        return root.resolve(name.substring(0, 2)).resolve(name);
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long requests = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("directory", root.toAbsolutePath().toString());
+        synchronized (this) {
+            stats.put("entries", entries.size());
+            stats.put("bytes", currentBytes);
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("writes", writes.get());
+        stats.put("evictions", evictions.get());
+        stats.put("hitRatio", requests == 0 ? 0.0 : (double) hitCount / requests);
+        return stats;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.demo.util;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+// Bir PDF sayfasının içerik akışı (metin ve dolu dikdörtgenler). Tampon sayfalar arasında reset() ile tekrar kullanılır.
+// Koordinatlar punto, orijin sol alt köşe.
+public class PdfContent {
+
+    private static final Charset WIN_ANSI = Charset.forName("windows-1252");
+
+    // Helvetica AFM genişlikleri (1/1000 em), ASCII 32..126
+    private static final short[] HELVETICA_WIDTHS = {
+            278, 278, 355, 556, 556, 889, 667, 191, 333, 333, 389, 584, 278, 333, 278, 278,
+            556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 278, 278, 584, 584, 584, 556,
+            1015, 667, 667, 722, 722, 667, 611, 778, 722, 278, 500, 667, 556, 833, 722, 778,
+            667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 278, 278, 278, 469, 556,
+            333, 556, 556, 500, 556, 556, 278, 556, 556, 222, 222, 500, 222, 833, 556, 556,
+            556, 556, 333, 500, 278, 556, 500, 722, 500, 500, 500, 334, 260, 334, 584
+    };
+
+    private byte[] buffer = new byte[4096];
+    private int size;
+
+    public void reset() {
+        size = 0;
+    }
+
+    byte[] buffer() {
+        return buffer;
+    }
+
+    int size() {
+        return size;
+    }
+
+    public PdfContent text(String font, double fontSize, double x, double y, String text) {
+        append("BT /").append(font).append(' ').append(number(fontSize)).append(" Tf ")
+                .append(number(x)).append(' ').append(number(y)).append(" Td (");
+        for (byte b : encode(text)) {
+            if (b == '(' || b == ')' || b == '\\') {
+                appendByte('\\');
+            }
+            appendByte(b);
+        }
+        return append(") Tj ET\n");
+    }
+
+    public PdfContent rect(double x, double y, double width, double height) {
+        return append(number(x)).append(' ').append(number(y)).append(' ')
+                .append(number(width)).append(' ').append(number(height)).append(" re\n");
+    }
+
+    public PdfContent fill() {
+        return append("f\n");
+    }
+
+    public PdfContent line(double x1, double y1, double x2, double y2, double lineWidth) {
+        return append(number(lineWidth)).append(" w ").append(number(x1)).append(' ').append(number(y1))
+                .append(" m ").append(number(x2)).append(' ').append(number(y2)).append(" l S\n");
+    }
+
+    // Yaklaşık metin genişliği (punto); kalın yazı %5 geniş kabul edilir
+    public static double textWidth(String text, double fontSize, boolean bold) {
+        int units = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            units += c >= 32 && c <= 126 ? HELVETICA_WIDTHS[c - 32] : 556;
+        }
+        return units * fontSize / 1000.0 * (bold ? 1.05 : 1.0);
+    }
+
+    // Standart yazı tiplerinin WinAnsi kodlamasında ğ, ş, ı, İ yoktur; en yakın Latin harfe çevrilir
+    // (ç, ö, ü WinAnsi'de vardır). Kodlanamayan diğer karakterler '?' olur.
+    static byte[] encode(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            switch (chars[i]) {
+                case 'ğ' -> chars[i] = 'g';
+                case 'Ğ' -> chars[i] = 'G';
+                case 'ş' -> chars[i] = 's';
+                case 'Ş' -> chars[i] = 'S';
+                case 'ı' -> chars[i] = 'i';
+                case 'İ' -> chars[i] = 'I';
+                default -> {
+                    if (chars[i] < 32) chars[i] = ' ';
+                }
+            }
+        }
+        return new String(chars).getBytes(WIN_ANSI);
+    }
+
+    // İki ondalık basamak, gereksiz sıfırlar olmadan (String.format'tan hızlı ve yerel ayardan bağımsız)
+    static String number(double value) {
+        long hundredths = Math.round(value * 100);
+        StringBuilder sb = new StringBuilder(12);
+        if (hundredths < 0) {
+            sb.append('-');
+            hundredths = -hundredths;
+        }
+        sb.append(hundredths / 100);
+        int fraction = (int) (hundredths % 100);
+        if (fraction != 0) {
+            sb.append('.').append(fraction / 10);
+            if (fraction % 10 != 0) {
+                sb.append(fraction % 10);
+            }
+        }
+        return sb.toString();
+    }
+
+    private PdfContent append(String ascii) {
+        ensure(ascii.length());
+        for (int i = 0; i < ascii.length(); i++) {
+            buffer[size++] = (byte) ascii.charAt(i);
+        }
+        return this;
+    }
+
+    private PdfContent append(char c) {
+        appendByte(c);
+        return this;
+    }
+
+    private void appendByte(int b) {
+        ensure(1);
+        buffer[size++] = (byte) b;
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
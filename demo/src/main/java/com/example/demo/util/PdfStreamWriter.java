@@ -0,0 +1,141 @@
+package com.example.demo.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+// Sayfaları üretildikçe çıktıya yazan minimal PDF yazıcısı. Her sayfa (içerik + sayfa nesnesi) yazılır yazılmaz
+// flush edilir; bellekte yalnızca nesne ofsetleri tutulur. Sayfa ağacı, katalog ve xref tablosu sonda yazılır.
+// Yazı tipleri PDF'in standart Helvetica ailesidir (gömülmez, WinAnsiEncoding).
+public class PdfStreamWriter implements AutoCloseable {
+
+    public static final String FONT_REGULAR = "F1";
+    public static final String FONT_BOLD = "F2";
+
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int FIRST_FREE_OBJECT = 5;
+
+    private final OutputStream out;
+    private final double pageWidth;
+    private final double pageHeight;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private byte[] compressed = new byte[8192];
+
+    private long position;
+    private long[] offsets = new long[64];
+    private int nextObject = FIRST_FREE_OBJECT;
+    private int[] pageObjects = new int[64];
+    private int pageCount;
+    private boolean finished;
+
+    // Sayfa boyutu punto cinsinden (1 mm = 72 / 25.4 pt)
+    public PdfStreamWriter(OutputStream out, double pageWidth, double pageHeight) throws IOException {
+        this.out = out;
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        // İkinci satırdaki 8-bit baytlar dosyanın ikili olduğunu belirtir
+        write("%PDF-1.4\n%âãÏÓ\n");
+        writeFont(3, "Helvetica");
+        writeFont(4, "Helvetica-Bold");
+    }
+
+    public static double mm(double millimeters) {
+        return millimeters * 72.0 / 25.4;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public void writePage(PdfContent content) throws IOException {
+        deflater.reset();
+        deflater.setInput(content.buffer(), 0, content.size());
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+
+        int contentObject = beginObject();
+        write("<< /Length " + length + " /Filter /FlateDecode >>\nstream\n");
+        out.write(compressed, 0, length);
+        position += length;
+        write("\nendstream\nendobj\n");
+
+        int pageObject = beginObject();
+        write("<< /Type /Page /Parent " + PAGES + " 0 R /Contents " + contentObject + " 0 R >>\nendobj\n");
+        if (pageCount == pageObjects.length) {
+            pageObjects = Arrays.copyOf(pageObjects, pageCount * 2);
+        }
+        pageObjects[pageCount++] = pageObject;
+
+        // Yazıcı/tarayıcı ilk sayfaları belge bitmeden almaya başlar
+        out.flush();
+    }
+
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+
+        offsets[PAGES] = position;
+        StringBuilder pages = new StringBuilder(64 + pageCount * 8);
+        pages.append(PAGES).append(" 0 obj\n<< /Type /Pages /Count ").append(pageCount).append(" /Kids [");
+        for (int i = 0; i < pageCount; i++) {
+            pages.append(i == 0 ? "" : " ").append(pageObjects[i]).append(" 0 R");
+        }
+        pages.append("] /MediaBox [0 0 ").append(PdfContent.number(pageWidth)).append(' ')
+                .append(PdfContent.number(pageHeight)).append("] /Resources << /Font << /")
+                .append(FONT_REGULAR).append(" 3 0 R /").append(FONT_BOLD).append(" 4 0 R >> >> >>\nendobj\n");
+        write(pages.toString());
+
+        offsets[CATALOG] = position;
+        write(CATALOG + " 0 obj\n<< /Type /Catalog /Pages " + PAGES + " 0 R >>\nendobj\n");
+
+        long xref = position;
+        StringBuilder table = new StringBuilder(32 + nextObject * 20);
+        table.append("xref\n0 ").append(nextObject).append("\n0000000000 65535 f \n");
+        for (int i = 1; i < nextObject; i++) {
+            String offset = Long.toString(offsets[i]);
+            table.append("0000000000", offset.length(), 10).append(offset).append(" 00000 n \n");
+        }
+        table.append("trailer\n<< /Size ").append(nextObject).append(" /Root ").append(CATALOG)
+                .append(" 0 R >>\nstartxref\n").append(xref).append("\n%%EOF\n");
+        write(table.toString());
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+    }
+
+    private void writeFont(int object, String baseFont) throws IOException {
+        offsets[object] = position;
+        write(object + " 0 obj\n<< /Type /Font /Subtype /Type1 /BaseFont /" + baseFont
+                + " /Encoding /WinAnsiEncoding >>\nendobj\n");
+    }
+
+    private int beginObject() throws IOException {
+        int object = nextObject++;
+        if (object >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[object] = position;
+        write(object + " 0 obj\n");
+        return object;
+    }
+
+    private void write(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.ISO_8859_1);
+        out.write(bytes);
+        position += bytes.length;
+    }
+}
@@ -0,0 +1,338 @@
+package com.example.demo.util;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.springframework.stereotype.Component;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+// XLSX dosyasının ilk sayfasını SAX (event API) ile satır satır okur.
+// XSSFWorkbook gibi tüm sayfayı heap'e almaz; bellek kullanımı satır sayısından bağımsızdır.
+@Component
+public class XlsxStreamingReader {
+
+    public interface RowHandler {
+        // false dönerse okuma durdurulur
+        boolean handleRow(int rowIndex, String[] cells);
+        
+        // false dönen sütunların değeri çözülmez, boş string olarak gelir
+        default boolean wantsColumn(int column) {
+            return true;
+        }
+    }
+
+    public int read(InputStream inputStream, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(inputStream)) {
+            return read(pkg, handler, null);
+        } catch (OpenXML4JException e) {
+            throw new IOException("Excel dosyası açılamadı: " + e.getMessage(), e);
+        }
+    }
+
+    public int read(Path path, RowHandler handler) throws IOException {
+        return read(path, handler, null);
+    }
+
+    // dimensionListener, sayfanın <dimension> bilgisindeki son satır indeksini (varsa) satırlardan önce alır
+    public int read(Path path, RowHandler handler, IntConsumer dimensionListener) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(path.toFile(), PackageAccess.READ)) {
+            return read(pkg, handler, dimensionListener);
+        } catch (OpenXML4JException e) {
+            throw new IOException("Excel dosyası açılamadı: " + e.getMessage(), e);
+        }
+    }
+
+    private int read(OPCPackage pkg, RowHandler handler, IntConsumer dimensionListener)
+            throws IOException, OpenXML4JException {
+        XSSFReader reader = new XSSFReader(pkg);
+        Iterator<InputStream> sheets = reader.getSheetsData();
+        if (!sheets.hasNext()) {
+            return 0;
+        }
+
+        ReadOnlySharedStringsTable sharedStrings;
+        try {
+            sharedStrings = new ReadOnlySharedStringsTable(pkg);
+        } catch (SAXException e) {
+            throw new IOException("Excel metin tablosu okunamadı: " + e.getMessage(), e);
+        }
+        try (InputStream sheet = sheets.next()) {
+            SheetHandler sheetHandler = new SheetHandler(
+                    index -> sharedStrings.getItemAt(index).getString(), reader.getStylesTable(), handler, dimensionListener);
+            parse(sheet, sheetHandler);
+            return sheetHandler.rowCount;
+        }
+    }
+    
+    // Önizleme: yalnızca ilk maxRows satırı okur ve ayrıştırmayı orada keser.
+    // Paylaşılan metin tablosu (sharedStrings.xml) tamamen yüklenmez; bu satırlarda geçen en büyük indekse kadar okunur.
+    public List<String[]> readFirstRows(Path path, int maxRows) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        try (OPCPackage pkg = OPCPackage.open(path.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext() || maxRows <= 0) {
+                return rows;
+            }
+            
+            // Metin hücrelerine önce yer tutucu konur (identity ile eşlenir), indeksler sonra çözülür
+            Map<String, Integer> pending = new IdentityHashMap<>();
+            IntFunction<String> deferred = index -> {
+                String placeholder = new String("");
+                pending.put(placeholder, index);
+                return placeholder;
+            };
+            try (InputStream sheet = sheets.next()) {
+                parse(sheet, new SheetHandler(deferred, reader.getStylesTable(),
+                        (rowIndex, cells) -> rows.add(cells) && rows.size() < maxRows, null));
+            }
+            
+            if (!pending.isEmpty()) {
+                int lastIndex = Collections.max(pending.values());
+                SharedStringsPrefixHandler prefix = new SharedStringsPrefixHandler(lastIndex);
+                try (InputStream sharedStrings = reader.getSharedStringsData()) {
+                    parse(sharedStrings, prefix);
+                }
+                for (String[] cells : rows) {
+                    for (int i = 0; i < cells.length; i++) {
+                        Integer index = pending.get(cells[i]);
+                        if (index != null) {
+                            cells[i] = index < prefix.items.size() ? prefix.items.get(index) : "";
+                        }
+                    }
+                }
+            }
+            return rows;
+        } catch (OpenXML4JException e) {
+            throw new IOException("Excel dosyası açılamadı: " + e.getMessage(), e);
+        }
+    }
+    
+    private void parse(InputStream xml, DefaultHandler contentHandler) throws IOException {
+        try {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(contentHandler);
+            parser.parse(new InputSource(xml));
+        } catch (StopReadingException e) {
+            // Handler okumayı erken bitirdi
+        } catch (SAXException | ParserConfigurationException e) {
+            throw new IOException("Excel sayfası okunamadı: " + e.getMessage(), e);
+        }
+    }
+
+    private static class StopReadingException extends SAXException {
+        StopReadingException() {
+            super("stop");
+        }
+    }
+
+    // sharedStrings.xml'i baştan okur, lastIndex'e kadar olan metinleri topladıktan sonra durur
+    private static class SharedStringsPrefixHandler extends DefaultHandler {
+        private final int lastIndex;
+        private final List<String> items = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+        private boolean inText;
+        
+        SharedStringsPrefixHandler(int lastIndex) {
+            this.lastIndex = lastIndex;
+        }
+        
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            if ("si".equals(localName)) {
+                text.setLength(0);
+            } else if ("t".equals(localName)) {
+                inText = true;
+            }
+        }
+        
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inText) {
+                text.append(ch, start, length);
+            }
+        }
+        
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            if ("t".equals(localName)) {
+                inText = false;
+            } else if ("si".equals(localName)) {
+                items.add(text.toString());
+                if (items.size() > lastIndex) {
+                    throw new StopReadingException();
+                }
+            }
+        }
+    }
+
+    // Hücre değerlerini ExcelImportService.getCellValueAsString ile aynı kurallarla üretir:
+    // metin olduğu gibi, sayı String.valueOf(double), tarih biçimli sayı Date.toString(),
+    // formül / boolean / hata hücreleri boş string.
+    private static class SheetHandler extends DefaultHandler {
+        private final IntFunction<String> sharedStrings;
+        private final StylesTable styles;
+        private final RowHandler handler;
+        private final IntConsumer dimensionListener;
+        private final Map<Integer, Boolean> dateStyleCache = new HashMap<>();
+        private final StringBuilder value = new StringBuilder();
+
+        private String[] cells = new String[32];
+        private int width;
+        private int rowIndex = -1;
+        private int column;
+        private String cellType;
+        private int styleIndex;
+        private boolean hasFormula;
+        private boolean inValue;
+        private boolean wanted = true;
+        int rowCount;
+
+        SheetHandler(IntFunction<String> sharedStrings, StylesTable styles,
+                     RowHandler handler, IntConsumer dimensionListener) {
+            this.sharedStrings = sharedStrings;
+            this.styles = styles;
+            this.handler = handler;
+            this.dimensionListener = dimensionListener;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "dimension": {
+                    String ref = attributes.getValue("ref");
+                    if (dimensionListener != null && ref != null) {
+                        dimensionListener.accept(new CellReference(ref.substring(ref.indexOf(':') + 1)).getRow());
+                    }
+                    break;
+                }
+                case "row": {
+                    String r = attributes.getValue("r");
+                    rowIndex = r != null ? Integer.parseInt(r) - 1 : rowIndex + 1;
+                    Arrays.fill(cells, 0, width, "");
+                    width = 0;
+                    column = -1;
+                    break;
+                }
+                case "c": {
+                    String ref = attributes.getValue("r");
+                    column = ref != null ? new CellReference(ref).getCol() : column + 1;
+                    cellType = attributes.getValue("t");
+                    String s = attributes.getValue("s");
+                    styleIndex = s != null ? Integer.parseInt(s) : 0;
+                    hasFormula = false;
+                    wanted = handler.wantsColumn(column);
+                    value.setLength(0);
+                    break;
+                }
+                case "f":
+                    hasFormula = true;
+                    break;
+                case "v":
+                case "t":
+                    inValue = wanted;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue) {
+                value.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "v":
+                case "t":
+                    inValue = false;
+                    break;
+                case "c":
+                    setCell(column, hasFormula || !wanted ? "" : cellValue());
+                    break;
+                case "row":
+                    rowCount++;
+                    if (!handler.handleRow(rowIndex, Arrays.copyOf(cells, width))) {
+                        throw new StopReadingException();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private String cellValue() {
+            if (value.length() == 0) {
+                return "";
+            }
+            if ("s".equals(cellType)) {
+                return sharedStrings.apply(Integer.parseInt(value.toString()));
+            }
+            if ("inlineStr".equals(cellType) || "str".equals(cellType)) {
+                return value.toString();
+            }
+            if (cellType == null || "n".equals(cellType)) {
+                double number = Double.parseDouble(value.toString());
+                if (isDateStyle(styleIndex) && DateUtil.isValidExcelDate(number)) {
+                    return DateUtil.getJavaDate(number).toString();
+                }
+                return String.valueOf(number);
+            }
+            // b (boolean), e (hata) ve diğerleri
+            return "";
+        }
+
+        private boolean isDateStyle(int index) {
+            return dateStyleCache.computeIfAbsent(index, i -> {
+                if (styles == null || i >= styles.getNumCellStyles()) {
+                    return false;
+                }
+                XSSFCellStyle style = styles.getStyleAt(i);
+                return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+            });
+        }
+
+        private void setCell(int index, String cellValue) {
+            if (index >= cells.length) {
+                String[] grown = Arrays.copyOf(cells, Math.max(index + 1, cells.length * 2));
+                Arrays.fill(grown, cells.length, grown.length, "");
+                cells = grown;
+            }
+            if (index >= width) {
+                Arrays.fill(cells, width, index, "");
+                width = index + 1;
+            }
+            cells[index] = cellValue;
+        }
+    }
+}
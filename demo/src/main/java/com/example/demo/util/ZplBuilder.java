@@ -0,0 +1,64 @@
+package com.example.demo.util;
+
+// Zebra uyumlu termal yazıcılar için ZPL II komutları. Koordinatlar nokta (dot) cinsinden; metin ^CI28 ile UTF-8,
+// alan verisindeki komut karakterleri ^FH ile onaltılık kaçış dizisine çevrilir.
+public class ZplBuilder {
+
+    private final StringBuilder zpl;
+
+    public ZplBuilder(StringBuilder zpl) {
+        this.zpl = zpl;
+    }
+
+    public ZplBuilder begin(int widthDots, int heightDots) {
+        zpl.append("^XA^CI28^PW").append(widthDots).append("^LL").append(heightDots).append("^LH0,0\n");
+        return this;
+    }
+
+    public ZplBuilder end() {
+        zpl.append("^XZ\n");
+        return this;
+    }
+
+    // Ölçeklenebilir yazıcı fontu (^A0), yükseklik nokta cinsinden
+    public ZplBuilder text(int x, int y, int height, String text) {
+        zpl.append("^FO").append(x).append(',').append(y).append("^A0N,").append(height).append(',').append(height);
+        return field(text);
+    }
+
+    // Tek satırlık blok içinde sağa yaslı metin (genişliği yazıcı hesaplar)
+    public ZplBuilder textRight(int x, int y, int width, int height, String text) {
+        zpl.append("^FO").append(x).append(',').append(y).append("^A0N,").append(height).append(',').append(height)
+                .append("^FB").append(width).append(",1,0,R");
+        return field(text);
+    }
+
+    public ZplBuilder horizontalLine(int x, int y, int width, int thickness) {
+        zpl.append("^FO").append(x).append(',').append(y).append("^GB").append(width).append(',')
+                .append(thickness).append(',').append(thickness).append("^FS\n");
+        return this;
+    }
+
+    // Yazıcının kendi Code128 kodlayıcısı (^BC, otomatik alt küme seçimi); okunur metin satırı basılmaz
+    public ZplBuilder code128(int x, int y, int moduleWidth, int height, String data) {
+        zpl.append("^FO").append(x).append(',').append(y).append("^BY").append(moduleWidth)
+                .append("^BCN,").append(height).append(",N,N,N,A");
+        return field(data);
+    }
+
+    private ZplBuilder field(String text) {
+        zpl.append("^FH^FD");
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '_' -> zpl.append("_5F");
+                case '^' -> zpl.append("_5E");
+                case '~' -> zpl.append("_7E");
+                case '\r', '\n', '\t' -> zpl.append(' ');
+                default -> zpl.append(c);
+            }
+        }
+        zpl.append("^FS\n");
+        return this;
+    }
+}
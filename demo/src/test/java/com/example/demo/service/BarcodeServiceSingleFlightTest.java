@@ -0,0 +1,86 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Aynı görseli bekleyen istekler, ilk üretim hata verdiğinde (Error dahil) takılı kalmadan aynı hatayı almalı
+class BarcodeServiceSingleFlightTest {
+
+	@Test
+	void waitersFailWithErrorOfFailedRender() throws Exception {
+		assertWaitersFailWith(new OutOfMemoryError("test"));
+	}
+
+	@Test
+	void waitersFailWithExceptionOfFailedRender() throws Exception {
+		assertWaitersFailWith(new IllegalStateException("test"));
+	}
+
+	private void assertWaitersFailWith(Throwable failure) throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		BarcodeService service = new BarcodeService(1 << 20, 1 << 16, 6, "unused", 0) {
+			@Override
+			byte[] renderCode128(String barcodeText, boolean svg, int width, int height) {
+				if (calls.incrementAndGet() == 1) {
+					started.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					if (failure instanceof Error) {
+						throw (Error) failure;
+					}
+					throw (RuntimeException) failure;
+				}
+				return super.renderCode128(barcodeText, svg, width, height);
+			}
+		};
+
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			Future<byte[]> first = pool.submit(() -> service.generateCode128Barcode("ABC123", 300, 100));
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			Future<byte[]> second = pool.submit(() -> service.generateCode128Barcode("ABC123", 300, 100));
+			// İkinci istek ilk üretimin sonucunu bekliyor
+			long deadline = System.currentTimeMillis() + 5000;
+			while (singleFlight(service).get("coalesced").equals(0L) && System.currentTimeMillis() < deadline) {
+				Thread.sleep(5);
+			}
+			assertEquals(1L, singleFlight(service).get("coalesced"));
+
+			release.countDown();
+			ExecutionException firstFailure = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+			assertInstanceOf(failure.getClass(), firstFailure.getCause());
+			ExecutionException secondFailure = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+			assertInstanceOf(failure.getClass(), secondFailure.getCause());
+
+			// Hata önbelleğe yazılmaz: sonraki istek yeniden üretir
+			assertTrue(service.generateCode128Barcode("ABC123", 300, 100).length > 0);
+			assertEquals(0, singleFlight(service).get("inFlight"));
+			assertEquals(2, calls.get());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> singleFlight(BarcodeService service) {
+		return (Map<String, Object>) service.getCacheStats().get("singleFlight");
+	}
+}
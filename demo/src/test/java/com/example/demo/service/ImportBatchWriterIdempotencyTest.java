@@ -0,0 +1,123 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderImportData;
+import com.example.demo.repository.OrderItemRepository;
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Aynı parça tekrar yazıldığında kalemler MERGE ile yerinde güncellenir; satır sayısı ve toplamlar değişmez
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:import-batch-writer;DB_CLOSE_DELAY=-1",
+		"barcode.disk-cache.max-bytes=0"
+})
+class ImportBatchWriterIdempotencyTest {
+
+	@Autowired
+	private ImportBatchWriter importBatchWriter;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		orderItemRepository.deleteAll();
+		orderRepository.deleteAll();
+		productRepository.deleteAll();
+	}
+
+	@Test
+	void writingSameChunkTwiceKeepsLinesAndTotals() {
+		List<OrderImportData> chunk = List.of(
+				row("IB-1", "8690001", "STK-1", "P1", 2, 50.0),
+				row("IB-1", "8690002", "STK-2", "P1", 1, 120.0),
+				row("IB-2", "8690001", "STK-1", "P2", 3, 50.0));
+
+		ImportBatchWriter.ChunkResult first = importBatchWriter.write(chunk);
+		assertEquals(2, first.getCreatedOrderNumbers().size());
+		assertEquals(0, first.getDuplicateRows());
+		long lineCount = orderItemRepository.count();
+		Map<String, String> totals = orderTotals();
+		assertEquals(3, lineCount);
+		assertEquals("2/220.0", totals.get("IB-1"));
+		assertEquals("1/150.0", totals.get("IB-2"));
+		assertEquals(2, productRepository.count());
+
+		ImportBatchWriter.ChunkResult second = importBatchWriter.write(chunk);
+		assertEquals(0, second.getCreatedOrderNumbers().size());
+		assertEquals(3, second.getDuplicateRows());
+		assertEquals(lineCount, orderItemRepository.count());
+		assertEquals(totals, orderTotals());
+		assertEquals(2, orderRepository.count());
+		assertEquals(2, productRepository.count());
+	}
+
+	// Satır anahtarı gelmeden önce import edilmiş kalemler ilk yeniden importta anahtarlarını alır, çoğalmaz
+	@Test
+	void reimportAdoptsLinesWithoutLineKey() {
+		List<OrderImportData> chunk = List.of(
+				row("IB-1", "8690001", "STK-1", "P1", 2, 50.0),
+				row("IB-1", "8690001", "STK-1", "P2", 1, 50.0),
+				row("IB-1", "8690002", "STK-2", "P1", 1, 120.0));
+		importBatchWriter.write(chunk);
+		Map<String, String> totals = orderTotals();
+		// Eski sürümün bıraktığı durum
+		jdbcTemplate.update("UPDATE order_items SET line_key = NULL");
+
+		ImportBatchWriter.ChunkResult reimport = importBatchWriter.write(chunk);
+
+		assertEquals(3, reimport.getDuplicateRows());
+		assertEquals(3, orderItemRepository.count());
+		assertEquals(totals, orderTotals());
+		assertEquals(0, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM order_items WHERE line_key IS NULL", Integer.class));
+
+		// Artık anahtarlı: bir sonraki import da aynı kalemleri günceller
+		importBatchWriter.write(chunk);
+		assertEquals(3, orderItemRepository.count());
+		assertEquals(totals, orderTotals());
+	}
+
+	private Map<String, String> orderTotals() {
+		Map<String, String> totals = new TreeMap<>();
+		for (Order order : orderRepository.findAll()) {
+			totals.put(order.getOrderNumber(), order.getTotalItems() + "/" + order.getTotalAmount());
+		}
+		return totals;
+	}
+
+	private static OrderImportData row(String orderNumber, String barcode, String stockCode, String packageNo,
+									   int quantity, double price) {
+		OrderImportData data = new OrderImportData();
+		data.setOrderNumber(orderNumber);
+		data.setCustomerName("Müşteri " + orderNumber);
+		data.setAddress("Adres " + orderNumber);
+		data.setBarcode(barcode);
+		data.setProductCode(stockCode);
+		data.setProductName("Ürün " + barcode);
+		data.setPackageNo(packageNo);
+		data.setQuantity(quantity);
+		data.setPrice(price);
+		return data;
+	}
+}
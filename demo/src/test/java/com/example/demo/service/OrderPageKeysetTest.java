@@ -0,0 +1,185 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderDTO;
+import com.example.demo.model.OrderItem;
+import com.example.demo.model.OrderPageRequest;
+import com.example.demo.model.OrderStatus;
+import com.example.demo.model.Product;
+import com.example.demo.repository.OrderItemRepository;
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Cursor ile sayfa sayfa gezilen liste, aynı filtrelerin bellekte uygulanıp (createdAt, id) sırasıyla
+// sıralanmış haliyle aynı olmalı: sayfa sınırına denk gelen aynı createdAt değerlerinde atlama / tekrar yok
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:order-page-keyset;DB_CLOSE_DELAY=-1",
+		"barcode.disk-cache.max-bytes=0"
+})
+class OrderPageKeysetTest {
+
+	private static final LocalDate DAY1 = LocalDate.of(2024, 3, 10);
+	private static final LocalDate DAY2 = LocalDate.of(2024, 3, 11);
+
+	// Her zaman damgası birden fazla siparişte kullanılır
+	private static final LocalDateTime[] CREATED = {
+			DAY1.atTime(9, 0), DAY1.atTime(9, 0), DAY1.atTime(9, 0), DAY1.atTime(9, 0), DAY1.atTime(9, 0),
+			DAY1.atTime(14, 30), DAY1.atTime(14, 30), DAY1.atTime(14, 30),
+			DAY2.atTime(8, 15, 0, 123_000_000), DAY2.atTime(8, 15, 0, 123_000_000), DAY2.atTime(8, 15, 0, 123_000_000),
+			DAY2.atTime(8, 15, 0, 123_000_000),
+			DAY2.atTime(20, 0), DAY2.atTime(20, 0)
+	};
+
+	private static final OrderStatus[] STATUSES = {OrderStatus.PENDING, OrderStatus.SHIPPED, OrderStatus.DELIVERED};
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private List<Order> orders;
+
+	@BeforeEach
+	void setUp() {
+		orderItemRepository.deleteAll();
+		orderRepository.deleteAll();
+		productRepository.deleteAll();
+
+		Product product = productRepository.save(new Product("Ürün", "8690000000001", null, 1));
+		// Kayıt sırası zaman sırasından farklı: id sırası createdAt sırasını takip etmez
+		int count = CREATED.length * 2;
+		for (int i = 0; i < count; i++) {
+			Order order = new Order("KS-" + i, "Müşteri " + i, "Adres", null, null);
+			order.setCreatedAt(CREATED[(i * 5) % CREATED.length]);
+			order.setUpdatedAt(i % 2 == 0 ? DAY1.atTime(18, 0) : DAY2.atTime(18, 0));
+			order.setStatus(STATUSES[i % STATUSES.length]);
+			order.setBrand(i % 4 == 0 ? null : (i % 4 == 1 ? "Marka A" : "Marka B"));
+			order.setStockCode(i % 5 == 0 ? "STK-X" : "STK-" + i);
+			order = orderRepository.save(order);
+			OrderItem item = new OrderItem(order, product, 1, 10.0);
+			item.setStockCode(i % 7 == 3 ? "STK-X" : "ITEM-" + i);
+			orderItemRepository.save(item);
+		}
+		// createdAt değeri olmayan eski kayıtlar
+		jdbcTemplate.update("UPDATE orders SET created_at = NULL WHERE order_number IN ('KS-4', 'KS-11', 'KS-17')");
+
+		orders = orderRepository.findAllWithItems();
+	}
+
+	@Test
+	void pagesMatchFilteredOrderWithoutSkipsOrDuplicates() {
+		assertPages(request -> {}, order -> true);
+		assertPages(request -> request.setStatus(List.of(OrderStatus.SHIPPED)),
+				order -> order.getStatus() == OrderStatus.SHIPPED);
+		assertPages(request -> request.setStatus(List.of(OrderStatus.PENDING, OrderStatus.DELIVERED)),
+				order -> order.getStatus() != OrderStatus.SHIPPED);
+		assertPages(request -> {
+					request.setCreatedFrom(DAY2);
+					request.setCreatedTo(DAY2);
+				},
+				order -> order.getCreatedAt() != null && order.getCreatedAt().toLocalDate().equals(DAY2));
+		assertPages(request -> request.setCreatedTo(DAY1),
+				order -> order.getCreatedAt() != null && !order.getCreatedAt().toLocalDate().isAfter(DAY1));
+		assertPages(request -> request.setUpdatedFrom(DAY2),
+				order -> !order.getUpdatedAt().toLocalDate().isBefore(DAY2));
+		assertPages(request -> request.setBrand("Marka A"),
+				order -> "Marka A".equals(order.getBrand()));
+		assertPages(request -> request.setStockCode("STK-X"),
+				order -> "STK-X".equals(order.getStockCode())
+						|| order.getOrderItems().stream().anyMatch(item -> "STK-X".equals(item.getStockCode())));
+		assertPages(request -> {
+					request.setStatus(List.of(OrderStatus.PENDING, OrderStatus.SHIPPED));
+					request.setBrand("Marka B");
+					request.setCreatedFrom(DAY1);
+				},
+				order -> order.getStatus() != OrderStatus.DELIVERED && "Marka B".equals(order.getBrand())
+						&& order.getCreatedAt() != null);
+	}
+
+	@Test
+	void ordersWithoutCreatedAtComeFirstAndKeepTheirCursor() {
+		OrderPageRequest request = new OrderPageRequest();
+		request.setSize(2);
+		Map<String, Object> page = orderService.getOrdersPage(request);
+
+		String cursor = (String) page.get("nextCursor");
+		assertTrue(cursor.startsWith("_"), cursor);
+		for (OrderDTO order : pageOrders(page)) {
+			assertNull(order.getCreatedAt());
+		}
+		assertFalse(cursor.contains("null"), cursor);
+
+		request.setCursor("gecersiz");
+		assertThrows(IllegalArgumentException.class, () -> orderService.getOrdersPage(request));
+	}
+
+	private void assertPages(Consumer<OrderPageRequest> filter, Predicate<Order> expected) {
+		List<Long> expectedIds = orders.stream()
+				.filter(expected)
+				.sorted(Comparator.comparing(Order::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+						.thenComparing(Order::getId))
+				.map(Order::getId)
+				.toList();
+		assertFalse(expectedIds.isEmpty());
+
+		for (int size : new int[] {1, 2, 3, 5, 100}) {
+			OrderPageRequest request = new OrderPageRequest();
+			filter.accept(request);
+			request.setSize(size);
+
+			List<Long> ids = new ArrayList<>();
+			Set<String> cursors = new HashSet<>();
+			while (true) {
+				Map<String, Object> page = orderService.getOrdersPage(request);
+				for (OrderDTO order : pageOrders(page)) {
+					ids.add(order.getId());
+				}
+				String cursor = (String) page.get("nextCursor");
+				if (cursor == null) {
+					break;
+				}
+				assertTrue(cursors.add(cursor), "Tekrarlanan cursor: " + cursor);
+				assertTrue(ids.size() <= expectedIds.size(), "Sayfalar bitmiyor");
+				request.setCursor(cursor);
+			}
+			assertEquals(expectedIds, ids, "sayfa boyutu " + size);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<OrderDTO> pageOrders(Map<String, Object> page) {
+		return (List<OrderDTO>) page.get("orders");
+	}
+}
@@ -0,0 +1,142 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderDTO;
+import com.example.demo.model.OrderGroupDTO;
+import com.example.demo.model.OrderItem;
+import com.example.demo.model.OrderStatus;
+import com.example.demo.model.OrderSummaryDTO;
+import com.example.demo.model.Product;
+import com.example.demo.repository.OrderItemRepository;
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Sipariş listesi için çalışan SQL sayısı sipariş sayısıyla artmamalı (N+1 kontrolü)
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:order-query-count;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"orders.details.max-ids=40",
+		"barcode.disk-cache.max-bytes=0"
+})
+class OrderServiceQueryCountTest {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderGroupingService orderGroupingService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	private int sequence;
+
+	@BeforeEach
+	void setUp() {
+		orderItemRepository.deleteAll();
+		orderRepository.deleteAll();
+		productRepository.deleteAll();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void getAllOrdersWithItemsUsesConstantStatementCount() {
+		createOrders(2, 2);
+		long small = countStatementsForOrderList(2);
+
+		createOrders(30, 3);
+		long large = countStatementsForOrderList(32);
+
+		assertEquals(1, small);
+		assertEquals(small, large);
+	}
+
+	// Gruplar tek izdüşüm sorgusuyla kurulur; siparişler kalemleriyle yeniden yüklenmez, yalnızca özet taşır
+	@Test
+	void getGroupsUsesSingleStatementAndSummaries() {
+		createOrders(30, 3);
+		orderGroupingService.onOrdersChanged(new OrdersChangedEvent("test"));
+
+		statistics.clear();
+		List<OrderGroupDTO> groups = orderGroupingService.getGroups(OrderStatus.PENDING, null, null);
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+		List<OrderSummaryDTO> summaries = groups.stream().flatMap(group -> group.getItems().stream()).toList();
+		assertEquals(30, summaries.size());
+		OrderSummaryDTO first = summaries.stream().filter(summary -> summary.getOrderNumber().equals("QC1")).findFirst().orElseThrow();
+		assertEquals("Müşteri 1", first.getCustomerName());
+		assertEquals(3, first.getTotalItems());
+		assertEquals(30.0, first.getTotalAmount(), 0.001);
+	}
+
+	// Baskı ayrıntıları istenen sırayla, kalemleriyle ve sabit sorgu sayısıyla gelir; üst sınırın üzeri reddedilir
+	@Test
+	void getOrderDetailsKeepsRequestedOrder() {
+		createOrders(30, 2);
+		List<Long> ids = new ArrayList<>(orderRepository.findAll().stream().map(Order::getId).toList());
+		Collections.reverse(ids);
+
+		statistics.clear();
+		List<OrderDTO> details = orderService.getOrderDetails(ids);
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(ids, details.stream().map(OrderDTO::getId).toList());
+		assertEquals(2, details.get(0).getOrderItems().size());
+
+		List<Long> tooMany = new ArrayList<>();
+		for (long id = 1; id <= 41; id++) {
+			tooMany.add(id);
+		}
+		assertThrows(IllegalArgumentException.class, () -> orderService.getOrderDetails(tooMany));
+	}
+
+	// Controller'daki gibi DTO'ya dönüştürülür; ürünlerin yüklenmesi de sayıma dahildir
+	private long countStatementsForOrderList(int expectedOrders) {
+		statistics.clear();
+		List<OrderDTO> orders = new ArrayList<>();
+		for (Order order : orderService.getAllOrdersWithItems()) {
+			orders.add(new OrderDTO(order, order.getOrderItems()));
+		}
+		assertEquals(expectedOrders, orders.size());
+		return statistics.getPrepareStatementCount();
+	}
+
+	private void createOrders(int orderCount, int itemsPerOrder) {
+		for (int i = 0; i < orderCount; i++) {
+			int n = ++sequence;
+			Order order = new Order("QC" + n, "Müşteri " + n, "Adres " + n, null, null);
+			order.setTotalItems(itemsPerOrder);
+			order.setTotalAmount(itemsPerOrder * 10.0);
+			order = orderRepository.save(order);
+			for (int j = 0; j < itemsPerOrder; j++) {
+				Product product = productRepository.save(new Product("Ürün " + n + "-" + j, "869" + n + "0" + j, null, 1));
+				orderItemRepository.save(new OrderItem(order, product, 1, 10.0));
+			}
+		}
+	}
+}
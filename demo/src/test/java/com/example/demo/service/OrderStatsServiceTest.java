@@ -0,0 +1,200 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderImportData;
+import com.example.demo.model.OrderItemRequest;
+import com.example.demo.model.OrderRequest;
+import com.example.demo.model.OrderStatus;
+import com.example.demo.model.OrderStatusBulkRequest;
+import com.example.demo.model.Product;
+import com.example.demo.repository.OrderItemRepository;
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+// Olaylarla güncellenen durum sayaçları her değişiklikten sonra veritabanından yeni hesaplanan toplamlarla aynı olmalı
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:order-stats;DB_CLOSE_DELAY=-1",
+		"barcode.disk-cache.max-bytes=0"
+})
+class OrderStatsServiceTest {
+
+	private static final LocalDate DAY1 = LocalDate.of(2024, 5, 1);
+	private static final LocalDate DAY2 = LocalDate.of(2024, 5, 2);
+	private static final LocalDate EMPTY_DAY = LocalDate.of(2023, 1, 1);
+
+	@Autowired
+	private OrderStatsService orderStatsService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private ImportBatchWriter importBatchWriter;
+
+	@SpyBean
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Product product;
+
+	@BeforeEach
+	void setUp() {
+		orderItemRepository.deleteAll();
+		orderRepository.deleteAll();
+		productRepository.deleteAll();
+		product = productRepository.save(new Product("Ürün", "8690000000001", null, 1));
+
+		OrderStatus[] statuses = {OrderStatus.PENDING, OrderStatus.PENDING, OrderStatus.APPROVED, OrderStatus.SHIPPED};
+		for (int i = 0; i < 12; i++) {
+			Order order = new Order("ST-" + i, "Müşteri " + i, "Adres", null, null);
+			order.setCreatedAt((i % 2 == 0 ? DAY1 : DAY2).atTime(10 + i, 0));
+			order.setStatus(statuses[i % statuses.length]);
+			order.setTotalItems(1 + i % 3);
+			order.setTotalAmount(12.5 * (i + 1));
+			order.setBrand(i % 3 == 0 ? "Marka A" : null);
+			orderRepository.save(order);
+		}
+		// createdAt değeri olmayan kayıt yalnızca tarih sınırı yokken sayılır
+		jdbcTemplate.update("UPDATE orders SET created_at = NULL WHERE order_number = 'ST-5'");
+
+		// Doğrudan repository ile yazılan veri olay yayınlamaz: sayaçlar bilinmeyen değişiklik olarak sıfırlanır
+		orderStatsService.onOrdersChanged(new OrdersChangedEvent("test"));
+		assertStatsMatchDatabase();
+	}
+
+	@Test
+	void countersFollowEveryKindOfChange() {
+		Order created = orderService.createOrder(new OrderRequest("Yeni Müşteri", "Adres", null, null, null,
+				List.of(new OrderItemRequest(product.getId(), 3))));
+		assertStatsMatchDatabase();
+
+		orderService.updateOrderStatus(created.getId(), OrderStatus.APPROVED);
+		assertStatsMatchDatabase();
+
+		// Aynı duruma geçiş sayaçları değiştirmez
+		orderService.updateOrderStatus(created.getId(), OrderStatus.APPROVED);
+		assertStatsMatchDatabase();
+
+		Long undatedId = jdbcTemplate.queryForObject("SELECT id FROM orders WHERE order_number = 'ST-5'", Long.class);
+		orderService.updateOrderStatus(undatedId, OrderStatus.DELIVERED);
+		assertStatsMatchDatabase();
+
+		orderService.deleteOrder(idOf("ST-3"));
+		assertStatsMatchDatabase();
+
+		OrderStatusBulkRequest byIds = new OrderStatusBulkRequest();
+		byIds.setIds(List.of(idOf("ST-0"), idOf("ST-1"), idOf("ST-2"), undatedId, created.getId(), -1L));
+		byIds.setStatus(OrderStatus.SHIPPED);
+		orderService.updateOrderStatuses(byIds);
+		assertStatsMatchDatabase();
+
+		OrderStatusBulkRequest byFilter = new OrderStatusBulkRequest();
+		byFilter.setCurrentStatus(OrderStatus.PENDING);
+		byFilter.setFrom(DAY2);
+		byFilter.setTo(DAY2);
+		byFilter.setStatus(OrderStatus.CANCELLED);
+		orderService.updateOrderStatuses(byFilter);
+		assertStatsMatchDatabase();
+
+		importBatchWriter.write(List.of(importRow("ST-IMPORT-1", 4, 7.5), importRow("ST-0", 1, 20.0)));
+		assertStatsMatchDatabase();
+	}
+
+	@Test
+	void bulkUpdateFallsBackToReloadWhenCountsDoNotMatch() {
+		// Dağılım sorgusu ile UPDATE arasında başka bir yazma: bir sipariş daha filtreye girer ve olay yayınlamaz
+		Long interleaved = idOf("ST-2");
+		List<OrderRepository.DailyStatusTotals> changes =
+				orderRepository.sumByDayAndStatusForFilter(OrderStatus.PENDING, null, null, OrderStatus.SHIPPED);
+		doAnswer(invocation -> {
+			jdbcTemplate.update("UPDATE orders SET status = 'PENDING' WHERE id = ?", interleaved);
+			return changes;
+		}).when(orderRepository).sumByDayAndStatusForFilter(any(), any(), any(), any());
+
+		OrderStatusBulkRequest byFilter = new OrderStatusBulkRequest();
+		byFilter.setCurrentStatus(OrderStatus.PENDING);
+		byFilter.setStatus(OrderStatus.SHIPPED);
+		Map<String, Object> result = orderService.updateOrderStatuses(byFilter);
+
+		assertEquals(7, result.get("updated"));
+		assertStatsMatchDatabase();
+	}
+
+	private void assertStatsMatchDatabase() {
+		assertRangeMatches(null, null);
+		assertRangeMatches(DAY1, DAY1);
+		assertRangeMatches(DAY2, DAY2);
+		assertRangeMatches(DAY1, DAY2);
+		assertRangeMatches(LocalDate.now(), null);
+		assertRangeMatches(null, DAY1);
+		assertRangeMatches(EMPTY_DAY, EMPTY_DAY);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void assertRangeMatches(LocalDate from, LocalDate to) {
+		Map<OrderStatus, double[]> expected = new EnumMap<>(OrderStatus.class);
+		for (OrderStatus status : OrderStatus.values()) {
+			expected.put(status, new double[3]);
+		}
+		for (OrderRepository.StatusTotals row : orderRepository.sumByStatus(
+				from != null ? from.atStartOfDay() : null,
+				to != null ? to.plusDays(1).atStartOfDay() : null,
+				null)) {
+			double[] totals = expected.get(row.getStatus());
+			totals[0] += row.getOrderCount();
+			totals[1] += row.getTotalAmount() != null ? row.getTotalAmount() : 0.0;
+			totals[2] += row.getTotalItems() != null ? row.getTotalItems() : 0;
+		}
+
+		Map<String, Object> statuses = (Map<String, Object>) orderStatsService.getStats(from, to, null).get("statuses");
+		for (OrderStatus status : OrderStatus.values()) {
+			String message = status + " " + from + ".." + to;
+			Map<String, Object> actual = (Map<String, Object>) statuses.get(status.name());
+			assertEquals((long) expected.get(status)[0], actual.get("count"), message);
+			assertEquals(expected.get(status)[1], (Double) actual.get("amount"), 1e-6, message);
+			assertEquals((long) expected.get(status)[2], actual.get("items"), message);
+		}
+	}
+
+	private Long idOf(String orderNumber) {
+		return orderRepository.findByOrderNumber(orderNumber).orElseThrow().getId();
+	}
+
+	private static OrderImportData importRow(String orderNumber, int quantity, double price) {
+		OrderImportData data = new OrderImportData();
+		data.setOrderNumber(orderNumber);
+		data.setCustomerName("Müşteri " + orderNumber);
+		data.setAddress("Adres");
+		data.setBarcode("8690000000099");
+		data.setProductCode("STK-IMPORT");
+		data.setProductName("İmport Ürünü");
+		data.setPackageNo("P1");
+		data.setQuantity(quantity);
+		data.setPrice(price);
+		return data;
+	}
+}
@@ -0,0 +1,52 @@
+package com.example.demo.util;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.oned.Code128Writer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Desenden çizilen satır, Code128Writer'ın aynı genişlik ve kenar boşluğuyla ürettiği matris satırıyla aynı olmalı
+class BarcodePatternTest {
+
+	private static final String[] TEXTS = {"A", "ABC123", "8690000000017", "SIPARIS-2024/00042"};
+
+	@Test
+	void rasterizeRowMatchesCode128WriterRow() {
+		for (String text : TEXTS) {
+			byte[] runs = BarcodePattern.toRuns(new Code128Writer().encode(text));
+			int modules = BarcodePattern.moduleCount(runs);
+			// Modül sayısının altındaki genişlikler en küçük genişliğe yuvarlanır
+			int[] widths = {0, 1, modules / 2, modules - 1, modules, modules + 1, modules + 7, 2 * modules + 3, 300, 1001};
+			for (int margin : new int[] {0, 1, 10}) {
+				for (int width : widths) {
+					BitMatrix matrix = new Code128Writer().encode(text, BarcodeFormat.CODE_128, width, 1,
+							Map.of(EncodeHintType.MARGIN, margin));
+					boolean[] row = BarcodePattern.rasterizeRow(runs, width, margin);
+
+					String message = text + " genişlik " + width + " kenar " + margin;
+					assertEquals(matrix.getWidth(), row.length, message);
+					for (int x = 0; x < row.length; x++) {
+						assertEquals(matrix.get(x, 0), row[x], message + " x=" + x);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void toRunsRoundTripsModules() {
+		for (String text : TEXTS) {
+			boolean[] modules = new Code128Writer().encode(text);
+			byte[] runs = BarcodePattern.toRuns(modules);
+			assertEquals(modules.length, BarcodePattern.moduleCount(runs), text);
+			// Code128 çubukla başlar
+			assertTrue(runs[0] > 0, text);
+		}
+	}
+}
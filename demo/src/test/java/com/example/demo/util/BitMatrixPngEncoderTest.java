@@ -0,0 +1,78 @@
+package com.example.demo.util;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.oned.Code128Writer;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Üretilen PNG, ImageIO ile çözüldüğünde zxing'in Code128Writer matrisiyle piksel piksel aynı olmalı
+class BitMatrixPngEncoderTest {
+
+	private static final String[] TEXTS = {"A", "ABC123", "8690000000017", "SIPARIS-2024/00042"};
+
+	// 0: en küçük genişlik; 203 ve 301 8'in katı değil
+	private static final int[][] SIZES = {{0, 1}, {0, 40}, {120, 30}, {203, 50}, {301, 100}};
+
+	@Test
+	void encodeRepeatedRowMatchesCode128Writer() throws IOException {
+		boolean sawPartialByte = false;
+		for (int level : new int[] {0, 6, 9}) {
+			BitMatrixPngEncoder encoder = new BitMatrixPngEncoder(level);
+			for (String text : TEXTS) {
+				for (int[] size : SIZES) {
+					BitMatrix matrix = new Code128Writer().encode(text, BarcodeFormat.CODE_128, size[0], size[1],
+							Map.of(EncodeHintType.MARGIN, 1));
+					boolean[] row = new boolean[matrix.getWidth()];
+					for (int x = 0; x < row.length; x++) {
+						row[x] = matrix.get(x, 0);
+					}
+
+					BufferedImage image = ImageIO.read(new ByteArrayInputStream(
+							encoder.encodeRepeatedRow(row, matrix.getHeight())));
+					assertNotNull(image, text + " " + size[0] + "x" + size[1]);
+					assertPixelsEqual(matrix, image, text + " " + size[0] + "x" + size[1] + " seviye " + level);
+					sawPartialByte |= matrix.getWidth() % 8 != 0;
+				}
+			}
+		}
+		assertTrue(sawPartialByte);
+	}
+
+	// Tutma sınırını aşan görselden sonra tamponlar bırakılır; aynı thread'deki sonraki görseller yine doğru üretilir
+	@Test
+	void encodesCorrectlyAfterOversizedImage() throws IOException {
+		BitMatrixPngEncoder encoder = new BitMatrixPngEncoder(6);
+		for (int[] size : new int[][] {{300, 100}, {4000, 400}, {300, 100}, {4000, 400}, {95, 1}}) {
+			BitMatrix matrix = new Code128Writer().encode("SIPARIS-2024/00042", BarcodeFormat.CODE_128, size[0], size[1],
+					Map.of(EncodeHintType.MARGIN, 1));
+			boolean[] row = new boolean[matrix.getWidth()];
+			for (int x = 0; x < row.length; x++) {
+				row[x] = matrix.get(x, 0);
+			}
+			BufferedImage image = ImageIO.read(new ByteArrayInputStream(encoder.encodeRepeatedRow(row, matrix.getHeight())));
+			assertPixelsEqual(matrix, image, size[0] + "x" + size[1]);
+		}
+	}
+
+	private static void assertPixelsEqual(BitMatrix matrix, BufferedImage image, String message) {
+		assertEquals(matrix.getWidth(), image.getWidth(), message);
+		assertEquals(matrix.getHeight(), image.getHeight(), message);
+		for (int y = 0; y < matrix.getHeight(); y++) {
+			for (int x = 0; x < matrix.getWidth(); x++) {
+				boolean black = (image.getRGB(x, y) & 0xffffff) == 0;
+				assertEquals(matrix.get(x, y), black, message + " (" + x + "," + y + ")");
+			}
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DiskContentStoreTest {
+
+	@TempDir
+	Path root;
+
+	@Test
+	void totalSizeStaysWithinLimit() throws IOException {
+		DiskContentStore store = new DiskContentStore(root, 100);
+		for (String name : new String[] {"aa01", "bb02", "cc03", "dd04"}) {
+			store.write(name, content(30, name));
+		}
+
+		assertEquals(3, store.getStats().get("entries"));
+		assertEquals(90L, store.getStats().get("bytes"));
+		assertEquals(1L, store.getStats().get("evictions"));
+		assertNull(store.read("aa01"));
+		assertFalse(Files.exists(root.resolve("aa").resolve("aa01")));
+
+		// Sınırdan büyük içerik hiç yazılmaz
+		store.write("ee05", content(101, "ee05"));
+		assertNull(store.read("ee05"));
+		assertEquals(90L, store.getStats().get("bytes"));
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedFirst() throws IOException {
+		DiskContentStore store = new DiskContentStore(root, 100);
+		store.write("aa01", content(30, "aa01"));
+		store.write("bb02", content(30, "bb02"));
+		store.write("cc03", content(30, "cc03"));
+
+		// aa01 okunduğu için en yeni kullanılan olur; sıradaki yazım bb02'yi atar
+		assertArrayEquals(content(30, "aa01"), store.read("aa01"));
+		store.write("dd04", content(30, "dd04"));
+
+		assertNull(store.find("bb02"));
+		assertNotNull(store.find("aa01"));
+		assertNotNull(store.find("cc03"));
+		assertNotNull(store.find("dd04"));
+	}
+
+	@Test
+	void reloadOrdersEntriesByModificationTime() throws IOException {
+		DiskContentStore store = new DiskContentStore(root, 100);
+		store.write("aa01", content(30, "aa01"));
+		store.write("bb02", content(30, "bb02"));
+		store.write("cc03", content(30, "cc03"));
+		// Yazılma sırasından farklı bir zaman sırası: bb02 < cc03 < aa01
+		touch("bb02", 1_000_000L);
+		touch("cc03", 2_000_000L);
+		touch("aa01", 3_000_000L);
+
+		DiskContentStore reloaded = new DiskContentStore(root, 100);
+		assertEquals(3, reloaded.getStats().get("entries"));
+		assertEquals(90L, reloaded.getStats().get("bytes"));
+		assertArrayEquals(content(30, "cc03"), reloaded.read("cc03"));
+
+		reloaded.write("dd04", content(30, "dd04"));
+		assertNull(reloaded.find("bb02"));
+		reloaded.write("ee05", content(30, "ee05"));
+		assertNull(reloaded.find("aa01"));
+		assertNotNull(reloaded.find("cc03"));
+
+		// Daha küçük sınırla açılınca en eski dosyalar hemen silinir
+		DiskContentStore smaller = new DiskContentStore(root, 60);
+		assertEquals(2, smaller.getStats().get("entries"));
+		assertEquals(60L, smaller.getStats().get("bytes"));
+	}
+
+	@Test
+	void removesLeftoverTempFilesOnStartup() throws IOException {
+		DiskContentStore store = new DiskContentStore(root, 100);
+		store.write("aa01", content(30, "aa01"));
+		Path leftover = root.resolve("bb").resolve("bb02123.tmp");
+		Files.createDirectories(leftover.getParent());
+		Files.write(leftover, content(30, "tmp"));
+
+		DiskContentStore reloaded = new DiskContentStore(root, 100);
+
+		assertFalse(Files.exists(leftover));
+		assertEquals(1, reloaded.getStats().get("entries"));
+		assertEquals(30L, reloaded.getStats().get("bytes"));
+		assertArrayEquals(content(30, "aa01"), reloaded.read("aa01"));
+	}
+
+	@Test
+	void openChannelSurvivesEviction() throws IOException {
+		DiskContentStore store = new DiskContentStore(root, 60);
+		store.write("aa01", content(30, "aa01"));
+		store.write("bb02", content(30, "bb02"));
+
+		try (FileChannel channel = store.open("aa01")) {
+			assertNotNull(channel);
+			// open de kullanım sayılır; bb02 okunarak aa01 en eski bırakılır
+			assertNotNull(store.find("bb02"));
+			store.write("cc03", content(30, "cc03"));
+			assertNull(store.find("aa01"));
+
+			ByteBuffer buffer = ByteBuffer.allocate(30);
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+				// Dosya silinmiş olsa da açık kanal okunur
+			}
+			assertArrayEquals(content(30, "aa01"), buffer.array());
+		}
+
+		// Dışarıdan silinen dosya ıska sayılır
+		Files.delete(root.resolve("bb").resolve("bb02"));
+		assertNull(store.open("bb02"));
+		assertEquals(30L, store.getStats().get("bytes"));
+		assertEquals(2L, store.getStats().get("misses"));
+	}
+
+	private void touch(String name, long millis) throws IOException {
+		Files.setLastModifiedTime(root.resolve(name.substring(0, 2)).resolve(name), FileTime.fromMillis(millis));
+	}
+
+	private static byte[] content(int size, String seed) {
+		byte[] content = new byte[size];
+		Arrays.fill(content, (byte) seed.hashCode());
+		content[0] = (byte) seed.length();
+		return content;
+	}
+}
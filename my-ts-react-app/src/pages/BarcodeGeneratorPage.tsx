@@ -33,17 +33,19 @@ import {
 } from '@mui/material';
 import { Download as DownloadIcon, Print as PrintIcon, Group as GroupIcon, Person as PersonIcon, Inventory as ProductIcon, Refresh as RefreshIcon, ArrowBack as BackIcon } from '@mui/icons-material';
 import { productApi, barcodeApi, orderApi } from '../services/api';
-import { Product, Order } from '../types';
+import { Product, Order, OrderGroup } from '../types';
 
-interface Group {
-  groupType: string;
-  groupName: string;
-  items: Order[];
-  count: number;
-  totalAmount: number;
-  barcode?: string; // Excel'den gelen barkod (virgülle ayrılmış)
-  stockCode?: string; // Stok kodu (virgülle ayrılmış)
-}
+type Group = OrderGroup;
+
+// Gruplar yalnızca sipariş özeti taşır; adres ve kalemler baskı anında tek seferde istenir
+const loadOrderDetails = async (groupsToLoad: Group[]): Promise<Map<number, Order>> => {
+  const details = await orderApi.getOrderDetails(groupsToLoad.flatMap(group => group.orderIds));
+  return new Map(details.map(order => [order.id, order]));
+};
+
+// Grubun siparişleri grup sırasıyla (bu arada silinenler atlanır)
+const ordersOf = (group: Group, details: Map<number, Order>): Order[] =>
+  group.orderIds.map(id => details.get(id)).filter((order): order is Order => order !== undefined);
 
 const BarcodeGeneratorPage: React.FC = () => {
   const navigate = useNavigate();
@@ -71,15 +73,7 @@ const BarcodeGeneratorPage: React.FC = () => {
       setLoading(true);
       setError(null);
       
-      // Siparişleri yükle
-      const response = await orderApi.getAllOrders();
-      console.log('API Response:', response);
-      console.log('Response type:', typeof response, 'isArray:', Array.isArray(response));
-      
-      // Response'un array olup olmadığını kontrol et
-      const allOrders: Order[] = Array.isArray(response) ? response : [];
-      
-      let filteredOrders: Order[];
+      let groupedData: Group[];
       
       if (statusFilter === 'SHIPPED') {
         // Kargoya Verildi: Sadece bugün oluşturulan SHIPPED siparişleri göster
@@ -91,56 +85,13 @@ const BarcodeGeneratorPage: React.FC = () => {
         const day = String(today.getDate()).padStart(2, '0');
         const todayStr = `${year}-${month}-${day}`;
         
-        console.log('====== FİLTRELEME BAŞLIYOR ======');
-        console.log('Bugünün tarihi (yerel saat):', todayStr);
-        console.log('Bugünün tam tarihi:', today.toString());
-        console.log('Toplam SHIPPED sipariş sayısı:', allOrders.filter(o => o.status === 'SHIPPED').length);
-        
-        filteredOrders = allOrders.filter(order => {
-          if (order.status !== 'SHIPPED') return false;
-          
-          // createdAt tarihi bugün mü kontrol et
-          if (!order.createdAt) {
-            console.log(`❌ Sipariş ${order.orderNumber}: createdAt yok`);
-            return false;
-          }
-          
-          // createdAt'ten sadece tarih kısmını al (timezone bağımsız)
-          let orderDateStr: string;
-          if (order.createdAt.includes('T')) {
-            orderDateStr = order.createdAt.split('T')[0];
-          } else if (order.createdAt.includes(' ')) {
-            orderDateStr = order.createdAt.split(' ')[0];
-          } else {
-            orderDateStr = order.createdAt.substring(0, 10);
-          }
-          
-          const isToday = orderDateStr === todayStr;
-          
-          if (isToday) {
-            console.log(`✅ Sipariş ${order.orderNumber}: createdAt=${order.createdAt}, tarih=${orderDateStr} (BUGÜN)`);
-          } else {
-            console.log(`❌ Sipariş ${order.orderNumber}: createdAt=${order.createdAt}, tarih=${orderDateStr} (Farklı gün - bugün: ${todayStr})`);
-          }
-          
-          return isToday;
-        });
-        
-        console.log('====== FİLTRELEME BİTTİ ======');
-        console.log('Bugün oluşturulan SHIPPED siparişler:', filteredOrders.length);
+        groupedData = await orderApi.getOrderGroups('SHIPPED', todayStr, todayStr);
       } else {
         // Beklemede: Tüm PENDING siparişler
-        filteredOrders = allOrders.filter(order => order.status === 'PENDING');
-        console.log('PENDING Siparişler:', filteredOrders.length);
+        groupedData = await orderApi.getOrderGroups('PENDING');
       }
       
-      console.log('Tüm Siparişler:', allOrders.length);
-      console.log(`${statusFilter} Siparişler:`, filteredOrders.length);
-      console.log('First order:', filteredOrders[0]);
-      console.log('First order items:', filteredOrders[0]?.orderItems);
-      
-      // Hibrit gruplandırma
-      const groupedData = createHybridGroups(filteredOrders);
+      // Hibrit gruplandırma sunucuda yapılır (alıcı + stok kodu, 1li ... 5veUstu sıralı)
       setGroups(groupedData);
       
     } catch (err: any) {
@@ -151,134 +102,7 @@ const BarcodeGeneratorPage: React.FC = () => {
     }
   };
 
-  const createHybridGroups = (orders: Order[]): Group[] => {
-    const groups: Group[] = [];
-    
-    // Alıcı + Stok Kodu bazında gruplandırma yap
-    const aliciStokGroups = new Map<string, Order[]>();
-    
-    orders.forEach(order => {
-      // Alıcı adını doğru şekilde al
-      let aliciName = order.customerName;
-      
-      // Eğer customerName tarih gibi görünüyorsa, orderNumber'dan alıcı adını çıkarmaya çalış
-      if (aliciName && (aliciName.includes('/') || aliciName.includes('-') || /^\d+$/.test(aliciName))) {
-        console.log('CustomerName tarih gibi görünüyor:', aliciName, 'OrderNumber:', order.orderNumber);
-        // orderNumber formatından alıcı adını çıkarmaya çalış
-        const orderParts = order.orderNumber.split('_');
-        if (orderParts.length > 1) {
-          aliciName = orderParts[1]; // İkinci kısım alıcı adı olabilir
-          console.log('OrderNumber\'dan alıcı adı çıkarıldı:', aliciName);
-        } else {
-          aliciName = order.orderNumber; // Fallback olarak orderNumber kullan
-          console.log('Fallback olarak orderNumber kullanıldı:', aliciName);
-        }
-      }
-      
-      // Stok kodu için önce Order'dan al, yoksa OrderItem'dan al
-      let stockCode = order.stockCode || '';
-      
-      // Eğer Order'da stok kodu yoksa OrderItem'lardan al
-      if (!stockCode && order.orderItems && order.orderItems.length > 0) {
-        const stockCodes = order.orderItems
-          .map(item => item.stockCode || item.product?.barcode || item.product?.name || '')
-          .filter(code => code && code.trim() !== '');
-        stockCode = stockCodes.length > 0 ? stockCodes[0] : '';
-      }
-      
-      // Eğer hala stok kodu yoksa orderNumber'dan çıkarmaya çalış
-      if (!stockCode) {
-        stockCode = order.orderNumber.split('-')[0] || order.orderNumber;
-      }
-      
-      console.log('Order:', order.orderNumber);
-      console.log('OrderItems:', order.orderItems?.length || 0);
-      console.log('Order.stockCode:', order.stockCode);
-      console.log('Final aliciName:', aliciName, 'StockCode:', stockCode);
-      
-      const groupKey = `${aliciName}_${stockCode}`; // Özlem Karataş_ABC123
-      
-      if (!aliciStokGroups.has(groupKey)) {
-        aliciStokGroups.set(groupKey, []);
-      }
-      aliciStokGroups.get(groupKey)!.push(order);
-    });
-    
-    // Alıcı+Stok Kodu gruplarını ekle
-    aliciStokGroups.forEach((orders, groupKey) => {
-      const [aliciName] = groupKey.split('_'); // İlk kısım alıcı adı
-      const totalQuantity = orders.reduce((sum, order) => sum + order.totalItems, 0);
-      
-      // İlk siparişten sipariş numarasını al
-      const orderNumberForGroup = orders[0]?.orderNumber || 'Bilinmeyen';
-      
-      let groupType = '1li';
-      if (totalQuantity === 2) groupType = '2li';
-      else if (totalQuantity === 3) groupType = '3lu';
-      else if (totalQuantity === 4) groupType = '4lu';
-      else if (totalQuantity >= 5) groupType = '5veUstu';
-      
-      // Tüm benzersiz stok kodlarını ve barkodları topla
-      const allStockCodes = new Set<string>();
-      const allBarcodes = new Set<string>();
-      
-      orders.forEach(order => {
-        // Order'dan barkod al
-        if (order.barcode && order.barcode.trim()) {
-          allBarcodes.add(order.barcode);
-        }
-        // Order'dan stok kodu al
-        if (order.stockCode) {
-          allStockCodes.add(order.stockCode);
-        }
-        // OrderItem'lardan stok kodlarını al
-        if (order.orderItems) {
-          order.orderItems.forEach(item => {
-            const code = item.stockCode || item.product?.name;
-            if (code && code.trim()) {
-              allStockCodes.add(code);
-            }
-          });
-        }
-      });
-      
-      // Virgülle ayrılmış stok kodları ve barkodlar
-      const stockCodesList = Array.from(allStockCodes).join(', ');
-      const barcodesList = Array.from(allBarcodes).join(', ');
-      const firstBarcode = Array.from(allBarcodes)[0] || '';
-      const firstStockCode = Array.from(allStockCodes)[0] || '';
-      
-      const groupName = `${groupType.toUpperCase()} - ${aliciName} - ${orderNumberForGroup}`;
-      
-      console.log('Grup oluşturuluyor:', {
-        groupKey,
-        aliciName,
-        barcodesList,
-        firstBarcode,
-        stockCodesList,
-        firstStockCode,
-        orderNumberForGroup,
-        totalQuantity
-      });
-      
-      groups.push({
-        groupType,
-        groupName,
-        items: orders,
-        count: orders.length,
-        totalAmount: orders.reduce((sum, order) => sum + order.totalAmount, 0),
-        barcode: barcodesList, // Tüm barkodları virgülle ayırarak kaydet
-        stockCode: stockCodesList // Tüm stok kodlarını virgülle ayırarak kaydet
-      });
-    });
-    
-    return groups.sort((a, b) => {
-      const order = ['1li', '2li', '3lu', '4lu', '5veUstu', 'diger'];
-      return order.indexOf(a.groupType) - order.indexOf(b.groupType);
-    });
-  };
-
-  const handleGenerateBarcode = () => {
+  const handleGenerateBarcode = async () => {
     if (!selectedGroup) {
       setError('Lütfen bir grup seçin!');
       return;
@@ -317,7 +141,8 @@ const BarcodeGeneratorPage: React.FC = () => {
       barcodeData,
       barcodeType,
       barcodeSize,
-      barcodeSize
+      barcodeSize,
+      'svg'
     );
     
     console.log('Barcode URL:', barcodeUrl);
@@ -325,6 +150,15 @@ const BarcodeGeneratorPage: React.FC = () => {
     // Barkod resmini yeni pencerede aç
     const newWindow = window.open('', '_blank');
     if (newWindow) {
+      let orders: Order[];
+      try {
+        orders = ordersOf(selectedGroup, await loadOrderDetails([selectedGroup]));
+      } catch (err) {
+        newWindow.close();
+        console.error('❌ Sipariş ayrıntıları alınamadı:', err);
+        setError('Sipariş ayrıntıları alınamadı');
+        return;
+      }
       newWindow.document.write(`
         <html>
           <head>
@@ -358,7 +192,7 @@ const BarcodeGeneratorPage: React.FC = () => {
               <div class="barcode-info">
                 <div style="margin-top: 15px;">
                   <p><strong>Sipariş Detayları:</strong></p>
-                  ${selectedGroup.items.map(order => `
+                  ${orders.map(order => `
                     <div style="margin: 10px 0; padding: 8px; background: #f5f5f5; border-radius: 3px;">
                       <strong>Sipariş No:</strong> ${order.orderNumber}<br>
                       <strong>Alıcı:</strong> ${order.customerName}<br>
@@ -387,7 +221,32 @@ const BarcodeGeneratorPage: React.FC = () => {
     }
   };
 
-  const handlePrintAllGroups = (groupsToPrint: Group[]) => {
+  // Sunucuda üretilen PDF: tüm etiketler tek belge, barkodlar vektör
+  const handlePrintLabelPdf = async (groupsToPrint: Group[]) => {
+    const ids = groupsToPrint.flatMap(group => group.orderIds);
+    if (ids.length === 0) {
+      setError('Yazdırılacak grup yok!');
+      return;
+    }
+    
+    // Pencere tıklama anında açılır (açılır pencere engelleyicisi), PDF gelince yüklenir
+    const pdfWindow = window.open('', '_blank');
+    try {
+      const pdf = await orderApi.downloadLabelSheet({ ids, layout: 'single' });
+      const pdfUrl = URL.createObjectURL(pdf);
+      if (pdfWindow) {
+        pdfWindow.location.href = pdfUrl;
+      } else {
+        window.open(pdfUrl, '_blank');
+      }
+    } catch (err) {
+      pdfWindow?.close();
+      console.error('❌ Etiket PDF\'i alınamadı:', err);
+      setError('Etiket PDF\'i oluşturulamadı');
+    }
+  };
+
+  const handlePrintAllGroups = async (groupsToPrint: Group[]) => {
     if (!groupsToPrint || groupsToPrint.length === 0) {
       setError('Yazdırılacak grup yok!');
       return;
@@ -396,6 +255,16 @@ const BarcodeGeneratorPage: React.FC = () => {
     // Yazdırma için yeni pencere
     const printWindow = window.open('', '_blank');
     if (printWindow) {
+      let details: Map<number, Order>;
+      try {
+        details = await loadOrderDetails(groupsToPrint);
+      } catch (err) {
+        printWindow.close();
+        console.error('❌ Sipariş ayrıntıları alınamadı:', err);
+        setError('Sipariş ayrıntıları alınamadı');
+        return;
+      }
+      
       // Tüm grupların tüm siparişlerini topla
       const allPages: string[] = [];
       
@@ -404,12 +273,21 @@ const BarcodeGeneratorPage: React.FC = () => {
       
       // Önce toplam sayfa sayısını hesapla
       groupsToPrint.forEach(group => {
-        totalPages += group.items.length;
+        totalPages += ordersOf(group, details).length;
       });
       
+      // Tüm barkodlar tek istekte gelir; toplu istek başarısız olursa tek tek görsel URL'lerine düşülür
+      let barcodeImages: Record<string, string> = {};
+      try {
+        const codes = groupsToPrint.flatMap(group => ordersOf(group, details).map(order => order.cargoCampaignCode));
+        barcodeImages = (await barcodeApi.renderBatch(codes, 350, 80, 'svg')).images;
+      } catch (err) {
+        console.error('❌ Toplu barkod alınamadı:', err);
+      }
+      
       groupsToPrint.forEach(group => {
         // Her grup için her siparişi ayrı sayfa olarak ekle
-        group.items.forEach(order => {
+        ordersOf(group, details).forEach(order => {
           pageIndex++;
           const isLastPage = pageIndex === totalPages;
           
@@ -417,11 +295,12 @@ const BarcodeGeneratorPage: React.FC = () => {
           const orderBarcode = order.cargoCampaignCode;
           const totalItems = order.orderItems?.reduce((sum, item) => sum + item.quantity, 0) || 0;
     
-    const barcodeUrl = barcodeApi.getBarcodeImage(
+          const barcodeUrl = barcodeImages[orderBarcode] || barcodeApi.getBarcodeImage(
             orderBarcode,
-      barcodeType,
+            barcodeType,
             350,  // genişlik - yatay dikdörtgen
-            80    // yükseklik
+            80,   // yükseklik
+            'svg' // vektör: yazıcı çözünürlüğünde net basılır
           );
           
           // Son sayfa için farklı class kullan
@@ -674,17 +553,10 @@ const BarcodeGeneratorPage: React.FC = () => {
         console.log('🖨️ Yazdırma tamamlandı, durumlar güncelleniyor...');
         
         try {
-          const updatePromises = groupsToPrint.flatMap(group => 
-            group.items.map(order => 
-              orderApi.updateOrderStatus(order.id, 'SHIPPED')
-                .then(() => console.log(`✅ Sipariş ${order.orderNumber} durumu güncellendi: SHIPPED`))
-                .catch(err => console.error(`❌ Sipariş ${order.orderNumber} durumu güncellenemedi:`, err))
-            )
-          );
-          
-          await Promise.all(updatePromises);
+          // Tüm baskı tek istekte (sunucuda tek UPDATE) SHIPPED yapılır
+          const result = await orderApi.updateOrderStatuses(groupsToPrint.flatMap(group => group.orderIds), 'SHIPPED');
           
-          console.log('✅ Tüm siparişler SHIPPED olarak işaretlendi');
+          console.log(`✅ ${result.updated} sipariş SHIPPED olarak işaretlendi (zaten SHIPPED: ${result.unchanged}, bulunamadı: ${result.notFound})`);
           setSuccessMessage('✅ Barkodlar yazdırıldı ve siparişler "Kargoya Verildi" olarak işaretlendi!');
           
           // Grupları yeniden yükle
@@ -709,17 +581,9 @@ const BarcodeGeneratorPage: React.FC = () => {
       setUpdatingStatus(true);
       console.log('📦 Siparişler manuel olarak SHIPPED yapılıyor...');
       
-      const updatePromises = groupsToShip.flatMap(group => 
-        group.items.map(order => 
-          orderApi.updateOrderStatus(order.id, 'SHIPPED')
-            .then(() => console.log(`✅ Sipariş ${order.orderNumber} manuel olarak SHIPPED yapıldı`))
-            .catch(err => console.error(`❌ Sipariş ${order.orderNumber} durumu güncellenemedi:`, err))
-        )
-      );
-      
-      await Promise.all(updatePromises);
+      const result = await orderApi.updateOrderStatuses(groupsToShip.flatMap(group => group.orderIds), 'SHIPPED');
       
-      console.log('✅ Tüm siparişler manuel olarak SHIPPED olarak işaretlendi');
+      console.log(`✅ ${result.updated} sipariş manuel olarak SHIPPED olarak işaretlendi`);
       setSuccessMessage(`✅ ${groupsToShip.length} grup içindeki tüm siparişler "Kargoya Verildi" olarak işaretlendi!`);
       
       // Grupları yeniden yükle
@@ -743,17 +607,9 @@ const BarcodeGeneratorPage: React.FC = () => {
       setUpdatingStatus(true);
       console.log('🔄 Siparişler PENDING yapılıyor...');
       
-      const updatePromises = groupsToRevert.flatMap(group => 
-        group.items.map(order => 
-          orderApi.updateOrderStatus(order.id, 'PENDING')
-            .then(() => console.log(`✅ Sipariş ${order.orderNumber} PENDING yapıldı`))
-            .catch(err => console.error(`❌ Sipariş ${order.orderNumber} durumu güncellenemedi:`, err))
-        )
-      );
+      const result = await orderApi.updateOrderStatuses(groupsToRevert.flatMap(group => group.orderIds), 'PENDING');
       
-      await Promise.all(updatePromises);
-      
-      console.log('✅ Tüm siparişler PENDING olarak işaretlendi');
+      console.log(`✅ ${result.updated} sipariş PENDING olarak işaretlendi`);
       setSuccessMessage(`✅ ${groupsToRevert.length} grup içindeki tüm siparişler geri alındı ve "Beklemede" durumuna getirildi!`);
       
       // Grupları yeniden yükle
@@ -767,21 +623,32 @@ const BarcodeGeneratorPage: React.FC = () => {
     }
   };
 
-  const handlePrintBarcode = () => {
+  const handlePrintBarcode = async () => {
     if (!selectedGroup) return;
     
     // Yazdırma için yeni pencere - her sipariş için ayrı sayfa
     const printWindow = window.open('', '_blank');
     if (printWindow) {
+      let orders: Order[];
+      try {
+        orders = ordersOf(selectedGroup, await loadOrderDetails([selectedGroup]));
+      } catch (err) {
+        printWindow.close();
+        console.error('❌ Sipariş ayrıntıları alınamadı:', err);
+        setError('Sipariş ayrıntıları alınamadı');
+        return;
+      }
+      
       // Her sipariş için ayrı sayfa oluştur
-       const pages = selectedGroup.items.map((order, orderIndex) => {
+       const pages = orders.map((order, orderIndex) => {
          // Her siparişin kendi kargo kampanya kodu ile barkod oluştur
          const orderBarcode = order.cargoCampaignCode || order.barcode || order.stockCode || '';
          const barcodeUrl = barcodeApi.getBarcodeImage(
            orderBarcode,
            barcodeType,
            350,  // genişlik - yatay dikdörtgen
-           80    // yükseklik
+           80,   // yükseklik
+           'svg' // vektör: yazıcı çözünürlüğünde net basılır
          );
          
          return `
@@ -820,7 +687,7 @@ const BarcodeGeneratorPage: React.FC = () => {
       printWindow.document.write(`
         <html>
           <head>
-            <title>Barkod Yazdır - ${selectedGroup.items.length} Sipariş</title>
+            <title>Barkod Yazdır - ${orders.length} Sipariş</title>
             <style>
               @page {
                 size: 100mm 100mm;
@@ -1152,6 +1019,32 @@ const BarcodeGeneratorPage: React.FC = () => {
                 </Button>
                 )}
                 
+                {statusFilter === 'PENDING' && (
+                <Button
+                    variant="outlined"
+                    color="success"
+                    startIcon={<PrintIcon />}
+                    onClick={() => {
+                      const currentGroups = 
+                        activeTab === 0 ? groupedByType['1li'] :
+                        activeTab === 1 ? groupedByType['2li'] :
+                        activeTab === 2 ? groupedByType['3lu'] :
+                        activeTab === 3 ? groupedByType['4lu'] :
+                        groupedByType['5veUstu'];
+                      handlePrintLabelPdf(currentGroups);
+                    }}
+                    disabled={
+                      (activeTab === 0 && groupedByType['1li'].length === 0) ||
+                      (activeTab === 1 && groupedByType['2li'].length === 0) ||
+                      (activeTab === 2 && groupedByType['3lu'].length === 0) ||
+                      (activeTab === 3 && groupedByType['4lu'].length === 0) ||
+                      (activeTab === 4 && groupedByType['5veUstu'].length === 0)
+                    }
+                  >
+                    PDF
+                </Button>
+                )}
+                
                 {statusFilter === 'SHIPPED' && (
                 <Button
                     variant="contained"
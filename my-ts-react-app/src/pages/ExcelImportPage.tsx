@@ -1,4 +1,4 @@
-import React, { useState } from 'react';
+import React, { useEffect, useRef, useState } from 'react';
 import { useNavigate } from 'react-router-dom';
 import {
   Box,
@@ -12,6 +12,10 @@ import {
 } from '@mui/material';
 import { ArrowBack as ArrowBackIcon, Upload as UploadIcon } from '@mui/icons-material';
 import axios from 'axios';
+import { ImportJobStatus } from '../types';
+
+const IMPORT_API_URL = 'http://localhost:8080/api/simple-excel';
+const POLL_INTERVAL_MS = 1000;
 
 const ExcelImportPage: React.FC = () => {
   const navigate = useNavigate();
@@ -19,6 +23,71 @@ const ExcelImportPage: React.FC = () => {
   const [error, setError] = useState<string | null>(null);
   const [success, setSuccess] = useState<string | null>(null);
   const [selectedFile, setSelectedFile] = useState<File | null>(null);
+  const [job, setJob] = useState<ImportJobStatus | null>(null);
+  const pollTimer = useRef<number | null>(null);
+
+  const stopPolling = () => {
+    if (pollTimer.current !== null) {
+      window.clearTimeout(pollTimer.current);
+      pollTimer.current = null;
+    }
+  };
+
+  // Sayfadan çıkılırsa polling'i durdur
+  useEffect(() => stopPolling, []);
+
+  // Sunucunun uyarı özetini (boş barkod, stok kodu vb.) sonuç mesajına ekle
+  const withDiagnostics = (message: string, diagnosticsSummary?: string) =>
+    diagnosticsSummary ? `${message}. Uyarılar: ${diagnosticsSummary}` : message;
+
+  const finishJob = (status: ImportJobStatus) => {
+    stopPolling();
+    setLoading(false);
+    if (status.status === 'COMPLETED' && status.result?.success) {
+      setSuccess(withDiagnostics(status.result.message || 'Excel dosyası başarıyla yüklendi!',
+        status.result.diagnosticsSummary));
+      setSelectedFile(null);
+      // Dosya input'unu temizle
+      const fileInput = document.getElementById('excel-file-input') as HTMLInputElement;
+      if (fileInput) fileInput.value = '';
+    } else if (status.status === 'CANCELLED') {
+      setError('Import iptal edildi. İptalden önce kaydedilen siparişler korunur.');
+    } else {
+      setError(status.error || 'Import işlemi başarısız oldu.');
+    }
+  };
+
+  const pollJob = (jobId: string) => {
+    pollTimer.current = window.setTimeout(async () => {
+      try {
+        const response = await axios.get<ImportJobStatus>(`${IMPORT_API_URL}/jobs/${jobId}`);
+        setJob(response.data);
+        if (['COMPLETED', 'FAILED', 'CANCELLED'].includes(response.data.status)) {
+          finishJob(response.data);
+        } else {
+          pollJob(jobId);
+        }
+      } catch (err: any) {
+        console.error('Import durumu alınamadı:', err);
+        stopPolling();
+        setLoading(false);
+        setError('Import durumu alınamadı: ' + (err.response?.data?.error || err.message));
+      }
+    }, POLL_INTERVAL_MS);
+  };
+
+  const handleCancel = async () => {
+    if (!job) return;
+    try {
+      await axios.post(`${IMPORT_API_URL}/jobs/${job.jobId}/cancel`);
+    } catch (err: any) {
+      console.error('İptal hatası:', err);
+    }
+  };
+
+  const progressValue = job && job.rowsTotal > 0
+    ? Math.min(100, ((job.rowsPersisted + job.rowsFailed) / job.rowsTotal) * 100)
+    : undefined;
 
   const handleFileSelect = (event: React.ChangeEvent<HTMLInputElement>) => {
     const file = event.target.files?.[0];
@@ -46,9 +115,12 @@ const ExcelImportPage: React.FC = () => {
     setError(null);
     setSuccess(null);
 
+    setJob(null);
+
     try {
       console.log('Excel import başlıyor...');
-      const response = await axios.post('http://localhost:8080/api/simple-excel/import', formData, {
+      // Sunucu işi kuyruğa alır ve hemen jobId döner; ilerleme polling ile izlenir
+      const response = await axios.post(`${IMPORT_API_URL}/import`, formData, {
         headers: {
           'Content-Type': 'multipart/form-data',
         },
@@ -56,19 +128,20 @@ const ExcelImportPage: React.FC = () => {
 
       console.log('Import yanıtı:', response.data);
       
-      if (response.data.success) {
-        setSuccess(response.data.message || 'Excel dosyası başarıyla yüklendi!');
+      if (response.data.success && response.data.jobId) {
+        pollJob(response.data.jobId);
+      } else if (response.data.success) {
+        // Aynı dosya daha önce yüklenmiş: sunucu önceki sonucu döner
+        setSuccess(withDiagnostics(response.data.message, response.data.diagnosticsSummary));
         setSelectedFile(null);
-        // Dosya input'unu temizle
-        const fileInput = document.getElementById('excel-file-input') as HTMLInputElement;
-        if (fileInput) fileInput.value = '';
+        setLoading(false);
       } else {
         setError(response.data.error || 'Import işlemi başarısız oldu.');
+        setLoading(false);
       }
     } catch (err: any) {
       console.error('Import hatası:', err);
       setError('Excel import sırasında bir hata oluştu: ' + (err.response?.data?.error || err.message));
-    } finally {
       setLoading(false);
     }
   };
@@ -137,7 +210,33 @@ const ExcelImportPage: React.FC = () => {
             </Button>
           </Box>
 
-          {loading && <LinearProgress sx={{ mb: 2 }} />}
+          {loading && (
+            <Box sx={{ mb: 2 }}>
+              <LinearProgress
+                variant={progressValue !== undefined ? 'determinate' : 'indeterminate'}
+                value={progressValue}
+                sx={{ mb: 1 }}
+              />
+              {job && (
+                <Box sx={{ display: 'flex', alignItems: 'center', justifyContent: 'space-between' }}>
+                  <Typography variant="body2" color="text.secondary">
+                    {job.status === 'QUEUED' ? 'Sırada bekliyor...' : (
+                      <>
+                        {job.rowsParsed} satır okundu, {job.rowsPersisted} kaydedildi
+                        {job.rowsFailed > 0 && `, ${job.rowsFailed} hatalı`}
+                        {job.rowsTotal > 0 && ` / ${job.rowsTotal}`}
+                        {job.rowsPerSecond !== undefined && ` · ${job.rowsPerSecond} satır/sn`}
+                        {job.etaSeconds !== undefined && ` · ~${job.etaSeconds} sn kaldı`}
+                      </>
+                    )}
+                  </Typography>
+                  <Button size="small" color="error" onClick={handleCancel}>
+                    İptal
+                  </Button>
+                </Box>
+              )}
+            </Box>
+          )}
 
           <Alert severity="info" sx={{ mt: 3 }}>
             <Typography variant="body2">
@@ -31,7 +31,7 @@ import {
   ArrowBack as BackIcon
 } from '@mui/icons-material';
 import { orderApi } from '../services/api';
-import { Order } from '../types';
+import { Order, OrderStats } from '../types';
 import { useNavigate } from 'react-router-dom';
 
 const ReportPage: React.FC = () => {
@@ -47,6 +47,7 @@ const ReportPage: React.FC = () => {
   const [dateRangeFilter, setDateRangeFilter] = useState<string>('TODAY');
   const [startDate, setStartDate] = useState<string>(new Date().toISOString().split('T')[0]);
   const [endDate, setEndDate] = useState<string>(new Date().toISOString().split('T')[0]);
+  const [stats, setStats] = useState<OrderStats | null>(null);
   const [page, setPage] = useState(0);
   const [rowsPerPage, setRowsPerPage] = useState(10);
 
@@ -83,17 +84,12 @@ const ReportPage: React.FC = () => {
     setLoading(true);
     setError(null);
     try {
-      const response = await orderApi.getAllOrders();
-      
-      // Tarih aralığına göre filtrele
+      // Tarih aralığı sunucuda filtrelenir; durum ve marka filtreleri sayfada uygulanır
       const { start, end } = calculateDateRange();
       const startDateStr = start.toISOString().split('T')[0];
       const endDateStr = end.toISOString().split('T')[0];
       
-      const filteredOrders = response.filter((order: Order) => {
-        const orderDate = new Date(order.createdAt).toISOString().split('T')[0];
-        return orderDate >= startDateStr && orderDate <= endDateStr;
-      });
+      const filteredOrders = await orderApi.getFilteredOrders({ createdFrom: startDateStr, createdTo: endDateStr });
       
       setOrders(filteredOrders);
     } catch (err: any) {
@@ -104,10 +100,32 @@ const ReportPage: React.FC = () => {
     }
   };
 
+  // Durum dağılımı sunucudan (tarih aralığı + marka), sipariş listesini süzmeden
+  const loadStats = async () => {
+    try {
+      const { start, end } = calculateDateRange();
+      const startDateStr = start.toISOString().split('T')[0];
+      const endDateStr = end.toISOString().split('T')[0];
+      setStats(await orderApi.getOrderStats(startDateStr, endDateStr, brandFilter !== 'ALL' ? brandFilter : undefined));
+    } catch (err: any) {
+      console.error('İstatistikler yüklenirken hata:', err);
+      setStats(null);
+    }
+  };
+
+  const handleRefresh = () => {
+    loadOrders();
+    loadStats();
+  };
+
   useEffect(() => {
     loadOrders();
   }, [dateRangeFilter, startDate, endDate]);
 
+  useEffect(() => {
+    loadStats();
+  }, [dateRangeFilter, startDate, endDate, brandFilter]);
+
   // Durum ve marka filtresine göre siparişleri filtrele
   const filteredOrders = orders.filter(order => {
     // Durum filtresi
@@ -121,8 +139,10 @@ const ReportPage: React.FC = () => {
     return true;
   });
 
-  // İstatistikler (filtrelenmiş siparişler üzerinden)
-  const totalOrders = filteredOrders.length;
+  // İstatistikler: sipariş sayısı sunucudan, yüklenemezse filtrelenmiş siparişler üzerinden
+  const totalOrders = stats
+    ? (statusFilter === 'ALL' ? stats.totalOrders : stats.statuses[statusFilter]?.count ?? 0)
+    : filteredOrders.length;
   
   // Toplam ürün sayısı - OrderItems'ları say
   let totalItems = 0;
@@ -158,21 +178,14 @@ const ReportPage: React.FC = () => {
   });
   const brandList = Array.from(uniqueBrands).sort();
 
-  // Durum bazında gruplandırma (sadece tarih ve marka filtresine göre, durum filtresi hariç)
-  const ordersForStatusCount = orders.filter(order => {
-    // Sadece marka filtresi uygula
-    if (brandFilter !== 'ALL' && order.brand !== brandFilter) {
-      return false;
-    }
-    return true;
-  });
-  
+  // Durum bazında dağılım (tarih ve marka filtresine göre, durum filtresi hariç) - sunucuda hesaplanır
+  const statusCount = (status: string) => stats?.statuses[status]?.count ?? 0;
   const statusGroups = {
-    PENDING: ordersForStatusCount.filter(o => o.status === 'PENDING').length,
-    PROCESSING: ordersForStatusCount.filter(o => o.status === 'PROCESSING').length,
-    SHIPPED: ordersForStatusCount.filter(o => o.status === 'SHIPPED').length,
-    DELIVERED: ordersForStatusCount.filter(o => o.status === 'DELIVERED').length,
-    CANCELLED: ordersForStatusCount.filter(o => o.status === 'CANCELLED').length
+    PENDING: statusCount('PENDING'),
+    PROCESSING: statusCount('PROCESSING'),
+    SHIPPED: statusCount('SHIPPED'),
+    DELIVERED: statusCount('DELIVERED'),
+    CANCELLED: statusCount('CANCELLED')
   };
 
   // En çok satılan ürünler analizi
@@ -338,7 +351,7 @@ const ReportPage: React.FC = () => {
               <Button
                 variant="contained"
                 startIcon={<RefreshIcon />}
-                onClick={loadOrders}
+                onClick={handleRefresh}
                 fullWidth
               >
                 Yenile
@@ -1,8 +1,11 @@
 import axios from 'axios';
-import { Product, BarcodeRequest, Order, OrderRequest, OrderItem, User, LoginRequest, RegisterRequest, AuthResponse, ExcelImportResponse } from '../types';
+import { Product, BarcodeRequest, Order, OrderRequest, OrderItem, User, LoginRequest, RegisterRequest, AuthResponse, ExcelImportResponse, BarcodeBatchResult, LabelSheetRequest, OrderPageRequest, OrderPage, OrderGroup, OrderStatusBulkResult, OrderStats } from '../types';
 
 const API_BASE_URL = 'http://localhost:8080/api';
 
+// Sunucudaki orders.details.max-ids ile aynı
+const ORDER_DETAILS_CHUNK = 500;
+
 const api = axios.create({
   baseURL: API_BASE_URL,
   headers: {
@@ -74,9 +77,15 @@ export const productApi = {
 };
 
 export const barcodeApi = {
-  // Barkod resmi getir
-  getBarcodeImage: (barcode: string, type: string = 'QR_CODE', width: number = 300, height: number = 300): string => {
-    return `${API_BASE_URL}/barcode/image/${barcode}?type=${type}&width=${width}&height=${height}`;
+  // Barkod resmi getir (yazdırma için 'svg': vektör, ölçeklenince bulanıklaşmaz)
+  getBarcodeImage: (barcode: string, type: string = 'QR_CODE', width: number = 300, height: number = 300, format: 'png' | 'svg' = 'png'): string => {
+    return `${API_BASE_URL}/barcode/image/${barcode}?type=${type}&width=${width}&height=${height}&format=${format}`;
+  },
+
+  // Toplu baskı için tüm barkodları tek istekte getir (kod -> data URI)
+  renderBatch: async (codes: string[], width: number, height: number, format: 'png' | 'svg' = 'svg'): Promise<BarcodeBatchResult> => {
+    const response = await api.post('/barcode/batch', { codes, width, height, format });
+    return response.data;
   },
 
   // Basit barkod oluştur
@@ -105,6 +114,47 @@ export const orderApi = {
     return response.data;
   },
 
+  // Sunucuda filtrelenen sayfalı liste
+  getOrdersPage: async (request: OrderPageRequest): Promise<OrderPage> => {
+    const params = { ...request, status: request.status?.join(',') };
+    const response = await api.get('/orders/page', { params });
+    return response.data;
+  },
+
+  // Filtreye uyan tüm siparişler, sayfa sayfa (cursor ile) toplanır
+  getFilteredOrders: async (request: OrderPageRequest): Promise<Order[]> => {
+    const orders: Order[] = [];
+    let cursor: string | undefined;
+    do {
+      const page: OrderPage = await orderApi.getOrdersPage({ size: 500, ...request, cursor });
+      orders.push(...page.orders);
+      cursor = page.nextCursor ?? undefined;
+    } while (cursor);
+    return orders;
+  },
+
+  // Paketleme ekranı grupları (from/to: yyyy-MM-dd, dahil)
+  getOrderGroups: async (status: string, from?: string, to?: string): Promise<OrderGroup[]> => {
+    const response = await api.get('/orders/groups', { params: { status, from, to } });
+    return response.data;
+  },
+
+  // Durum başına adet ve tutarlar (from/to: yyyy-MM-dd, dahil)
+  getOrderStats: async (from?: string, to?: string, brand?: string): Promise<OrderStats> => {
+    const response = await api.get('/orders/stats', { params: { from, to, brand } });
+    return response.data;
+  },
+
+  // Baskı için sipariş ayrıntıları (kalemleriyle), istenen sırayla; sunucu sınırı nedeniyle 500'lük parçalar halinde
+  getOrderDetails: async (ids: number[]): Promise<Order[]> => {
+    const orders: Order[] = [];
+    for (let start = 0; start < ids.length; start += ORDER_DETAILS_CHUNK) {
+      const response = await api.post('/orders/details', ids.slice(start, start + ORDER_DETAILS_CHUNK));
+      orders.push(...response.data);
+    }
+    return orders;
+  },
+
   // ID ile sipariş getir
   getOrderById: async (id: number): Promise<Order> => {
     const response = await api.get(`/orders/${id}`);
@@ -141,14 +191,26 @@ export const orderApi = {
     return response.data;
   },
 
+  // Birden fazla siparişin durumunu tek istekte güncelle
+  updateOrderStatuses: async (ids: number[], status: string): Promise<OrderStatusBulkResult> => {
+    const response = await api.put('/orders/status', { ids, status });
+    return response.data;
+  },
+
   // Sipariş sil
   deleteOrder: async (id: number): Promise<void> => {
     await api.delete(`/orders/${id}`);
   },
 
   // Sipariş etiketi oluştur
-  generateOrderLabel: (orderId: number): string => {
-    return `${API_BASE_URL}/orders/${orderId}/label`;
+  generateOrderLabel: (orderId: number, format: 'png' | 'svg' = 'png'): string => {
+    return `${API_BASE_URL}/orders/${orderId}/label?format=${format}`;
+  },
+
+  // Çok sayfalı etiket PDF'i (sunucuda vektör olarak üretilir)
+  downloadLabelSheet: async (request: LabelSheetRequest): Promise<Blob> => {
+    const response = await api.post('/orders/labels', request, { responseType: 'blob' });
+    return response.data;
   },
 };
 
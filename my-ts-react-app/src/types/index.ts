@@ -26,6 +26,91 @@ export interface BarcodeImageProps {
   height?: number;
 }
 
+export interface BarcodeBatchResult {
+  format: 'png' | 'svg';
+  width: number;
+  height: number;
+  images: Record<string, string>; // kod -> data URI
+  errors: Record<string, string>;
+}
+
+export interface LabelSheetRequest {
+  ids?: number[];
+  status?: string;
+  from?: string; // yyyy-MM-dd
+  to?: string;
+  layout?: 'single' | 'a4';
+  columns?: number;
+  rows?: number;
+}
+
+export interface OrderPageRequest {
+  status?: string[];
+  createdFrom?: string; // yyyy-MM-dd
+  createdTo?: string;   // dahil
+  updatedFrom?: string;
+  updatedTo?: string;
+  brand?: string;
+  stockCode?: string;
+  size?: number;
+  cursor?: string;
+}
+
+export interface OrderPage {
+  orders: Order[];
+  size: number;
+  nextCursor: string | null; // null: son sayfa
+}
+
+// Grup içindeki siparişin özeti; adres ve kalemler için orderApi.getOrderDetails
+export interface OrderSummary {
+  id: number;
+  orderNumber: string;
+  customerName: string;
+  stockCode?: string;
+  barcode?: string;
+  totalItems: number;
+  totalAmount: number;
+}
+
+// Paketleme ekranı grubu (sunucuda alıcı + stok koduna göre hesaplanır)
+export interface OrderGroup {
+  groupType: string; // 1li, 2li, 3lu, 4lu, 5veUstu
+  groupName: string;
+  items: OrderSummary[];
+  orderIds: number[];
+  count: number;
+  totalQuantity: number;
+  totalAmount: number;
+  barcode?: string; // Excel'den gelen barkod (virgülle ayrılmış)
+  stockCode?: string; // Stok kodu (virgülle ayrılmış)
+}
+
+export interface OrderStatusBulkResult {
+  status: string;
+  requested: number;
+  updated: number;
+  unchanged: number; // zaten hedef durumdaydı
+  notFound: number;
+}
+
+export interface StatusTotals {
+  count: number;
+  amount: number;
+  items: number;
+}
+
+// Rapor ekranı durum dağılımı (sunucuda tek sorgu / sayaç önbelleği)
+export interface OrderStats {
+  from: string | null;
+  to: string | null;
+  brand: string | null;
+  totalOrders: number;
+  totalAmount: number;
+  totalItems: number;
+  statuses: Record<string, StatusTotals>;
+}
+
 export interface Order {
   id: number;
   orderNumber: string;
@@ -124,3 +209,28 @@ export interface ExcelImportResponse {
   errorCount: number;
   success: boolean;
 }
+
+export interface ImportJobStatus {
+  jobId: string;
+  fileName?: string;
+  status: 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED' | 'CANCELLED';
+  rowsTotal: number;
+  rowsParsed: number;
+  rowsPersisted: number;
+  rowsFailed: number;
+  rowsPerSecond?: number;
+  etaSeconds?: number;
+  result?: {
+    success: boolean;
+    message?: string;
+    importedCount?: number;
+    orderCount?: number;
+    newOrderCount?: number;
+    updatedOrderCount?: number;
+    errorCount?: number;
+    warningCount?: number;
+    diagnosticsSummary?: string;
+    diagnostics?: Record<string, { label: string; count: number; examples: string[] }>;
+  };
+  error?: string;
+}